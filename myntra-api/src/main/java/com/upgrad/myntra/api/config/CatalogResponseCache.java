@@ -0,0 +1,389 @@
+package com.upgrad.myntra.api.config;
+
+import com.upgrad.myntra.service.business.CatalogChangeEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialized catalog responses kept in direct buffers outside the Java heap, with a gzip variant compressed once when
+ * the entry is stored. Least recently used entries are evicted once the stored bytes exceed the budget.
+ * <p>
+ * A controller names the data its response depends on with {@link #dependsOn}, following the versions of
+ * {@link com.upgrad.myntra.service.business.CatalogVersions}: the brand, the listed item and category rows, or the
+ * category list. A committed catalog change evicts only the entries that depend on what it touched. It runs after
+ * the second-level cache eviction, so a response loaded from stale entities cannot be stored again, and a response
+ * whose loading overlapped the eviction of one of its dependencies is dropped by {@link #putIfUnchanged}.
+ * <p>
+ * The direct memory of an entry is freed as soon as it has been evicted and the last request writing it has
+ * released it, instead of waiting for the garbage collector to find the buffer.
+ */
+@ManagedResource(objectName = "com.upgrad.myntra:type=CatalogResponseCache")
+public class CatalogResponseCache {
+
+    /**
+     * The rows of the items and categories listed in brand detail responses.
+     */
+    public static final String LISTED_ROWS = "listed-rows";
+
+    public static final String CATEGORY_LIST = "category-list";
+
+    private static final String DEPENDENCIES_ATTRIBUTE = CatalogResponseCache.class.getName() + ".dependencies";
+
+    /**
+     * One stored response. The buffers are read-only; writers use a duplicate so entries can be served concurrently.
+     * A reader holds a reference from {@link #acquire} until {@link #release}.
+     */
+    public static final class Entry {
+
+        private final ByteBuffer memory;
+
+        private final ByteBuffer identity;
+
+        private final ByteBuffer gzip;
+
+        private final String contentType;
+
+        private final String eTag;
+
+        private final long lastModified;
+
+        private final String[] dependencies;
+
+        // One for the cache while the entry is stored, one per request writing it.
+        private final AtomicInteger references = new AtomicInteger(1);
+
+        private Entry(byte[] identity, byte[] gzip, String contentType, String eTag, long lastModified, String[] dependencies) {
+            // Both encodings share one allocation, so an entry is freed in one step.
+            this.memory = ByteBuffer.allocateDirect(identity.length + gzip.length);
+            memory.put(identity).put(gzip).flip();
+            this.identity = slice(0, identity.length);
+            this.gzip = slice(identity.length, gzip.length);
+            this.contentType = contentType;
+            this.eTag = eTag;
+            this.lastModified = lastModified;
+            this.dependencies = dependencies;
+        }
+
+        private ByteBuffer slice(int offset, int length) {
+            ByteBuffer view = memory.duplicate();
+            view.position(offset).limit(offset + length);
+            return view.slice().asReadOnlyBuffer();
+        }
+
+        public ByteBuffer getIdentity() {
+            return identity.duplicate();
+        }
+
+        public ByteBuffer getGzip() {
+            return gzip.duplicate();
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getETag() {
+            return eTag;
+        }
+
+        /**
+         * @return the Last-Modified date in milliseconds, or -1 when the response had none.
+         */
+        public long getLastModified() {
+            return lastModified;
+        }
+
+        private int size() {
+            return memory.capacity();
+        }
+
+        private boolean acquire() {
+            for (int count = references.get(); count > 0; count = references.get()) {
+                if (references.compareAndSet(count, count + 1)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void release() {
+            if (references.decrementAndGet() == 0) {
+                free(memory);
+            }
+        }
+    }
+
+    private final long maxBytes;
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+
+    private final Map<String, Set<String>> keysByDependency = new HashMap<>();
+
+    // The generation at which each dependency was last evicted; the data behind it changed then.
+    private final Map<String, Long> evictedAt = new HashMap<>();
+
+    private long storedBytes;
+
+    private long generation;
+
+    private long clearedAt;
+
+    private long hits;
+
+    private long misses;
+
+    private long evictions;
+
+    public CatalogResponseCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * @return the dependency of the responses that show the brand.
+     */
+    public static String brand(Integer brandId) {
+        return "brand:" + brandId;
+    }
+
+    /**
+     * Records what the response to the request depends on. Only responses that name their dependencies are cached.
+     */
+    public static void dependsOn(WebRequest request, String... dependencies) {
+        request.setAttribute(DEPENDENCIES_ATTRIBUTE, dependencies, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    /**
+     * @return the dependencies recorded for the request, or null when it named none.
+     */
+    public static String[] dependenciesOf(WebRequest request) {
+        return (String[]) request.getAttribute(DEPENDENCIES_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    /**
+     * This method takes a reference to the entry stored under the key, to be returned with {@link #release}.
+     *
+     * @return the entry, or null on a miss.
+     */
+    public synchronized Entry acquire(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null || !entry.acquire()) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry;
+    }
+
+    public void release(Entry entry) {
+        entry.release();
+    }
+
+    /**
+     * @return a token to pass to {@link #putIfUnchanged} before rendering a response.
+     */
+    public synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * This method copies a rendered response off-heap, unless one of its dependencies was evicted since the
+     * generation was taken. The gzip variant is compressed outside the lock.
+     */
+    public void putIfUnchanged(String key, String[] dependencies, byte[] body, String contentType, String eTag,
+                               long lastModified, long generation) {
+        if (body.length > maxBytes || changedSince(dependencies, generation)) {
+            return;
+        }
+        Entry entry = new Entry(body, gzip(body), contentType, eTag, lastModified, dependencies.clone());
+        synchronized (this) {
+            if (changedSince(dependencies, generation)) {
+                entry.release();
+                return;
+            }
+            remove(key);
+            entries.put(key, entry);
+            storedBytes += entry.size();
+            for (String dependency : entry.dependencies) {
+                keysByDependency.computeIfAbsent(dependency, d -> new HashSet<>()).add(key);
+            }
+            Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+            while (storedBytes > maxBytes && eldest.hasNext()) {
+                Map.Entry<String, Entry> evicted = eldest.next();
+                eldest.remove();
+                unlink(evicted.getKey(), evicted.getValue());
+            }
+        }
+    }
+
+    /**
+     * This method evicts the responses that depend on the data a committed change touched.
+     */
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE + 1)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        switch (event.getSubject()) {
+            case BRAND:
+            case BRAND_ITEM:
+            case BRAND_CATEGORY:
+                evict(brand(event.getBrandId()));
+                break;
+            case CATEGORY:
+                evict(LISTED_ROWS, CATEGORY_LIST);
+                break;
+            case ITEM:
+            case CATEGORY_ITEM:
+                evict(LISTED_ROWS);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private synchronized void evict(String... dependencies) {
+        generation++;
+        for (String dependency : dependencies) {
+            evictedAt.put(dependency, generation);
+            Set<String> keys = keysByDependency.remove(dependency);
+            if (keys != null) {
+                for (String key : new ArrayList<>(keys)) {
+                    remove(key);
+                }
+            }
+        }
+    }
+
+    @ManagedOperation(description = "Drop every cached catalog response")
+    public synchronized void clear() {
+        generation++;
+        clearedAt = generation;
+        List<String> keys = new ArrayList<>(entries.keySet());
+        for (String key : keys) {
+            remove(key);
+        }
+        keysByDependency.clear();
+        evictedAt.clear();
+    }
+
+    @ManagedAttribute(description = "Number of cached responses")
+    public synchronized int getEntries() {
+        return entries.size();
+    }
+
+    @ManagedAttribute(description = "Off-heap bytes held by cached responses, both encodings")
+    public synchronized long getStoredBytes() {
+        return storedBytes;
+    }
+
+    @ManagedAttribute(description = "Requests served from the cache since startup")
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    @ManagedAttribute(description = "Requests that missed the cache since startup")
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    @ManagedAttribute(description = "Responses removed since startup, by a catalog change or for space")
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    private synchronized boolean changedSince(String[] dependencies, long generation) {
+        if (clearedAt > generation) {
+            return true;
+        }
+        for (String dependency : dependencies) {
+            Long evicted = evictedAt.get(dependency);
+            if (evicted != null && evicted > generation) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void remove(String key) {
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            unlink(key, entry);
+        }
+    }
+
+    /**
+     * Drops an entry already taken out of the entries from the dependency index and returns the cache's reference.
+     */
+    private void unlink(String key, Entry entry) {
+        storedBytes -= entry.size();
+        evictions++;
+        for (String dependency : entry.dependencies) {
+            Set<String> keys = keysByDependency.get(dependency);
+            if (keys != null && keys.remove(key) && keys.isEmpty()) {
+                keysByDependency.remove(dependency);
+            }
+        }
+        entry.release();
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+        // Compressed once per stored response, so the slowest and smallest level is worth it.
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            out.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    /**
+     * Frees a direct buffer now. Where this JVM does not allow it, the buffer is left to the garbage collector.
+     */
+    private static void free(ByteBuffer buffer) {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            try {
+                // Java 9 and later.
+                Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+                Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+                theUnsafe.setAccessible(true);
+                invokeCleaner.invoke(theUnsafe.get(null), buffer);
+            } catch (NoSuchMethodException e) {
+                // Java 8: DirectByteBuffer.cleaner().clean().
+                Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+                cleanerMethod.setAccessible(true);
+                Object cleaner = cleanerMethod.invoke(buffer);
+                cleaner.getClass().getMethod("clean").invoke(cleaner);
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Left to the garbage collector.
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.upgrad.myntra.api.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Off-heap cache of the serialized catalog responses, enabled with "myntra.catalog.response-cache.enabled".
+ * The filter runs ahead of the request concurrency limit, so cache hits never wait for a database permit.
+ */
+@Configuration
+@ConditionalOnProperty(name = "myntra.catalog.response-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class CatalogResponseCacheConfiguration {
+
+    @Bean
+    public CatalogResponseCache catalogResponseCache(@Value("${myntra.catalog.response-cache.max-bytes:67108864}") long maxBytes) {
+        return new CatalogResponseCache(maxBytes);
+    }
+
+    @Bean
+    public FilterRegistrationBean<CatalogResponseCacheFilter> catalogResponseCacheFilter(CatalogResponseCache catalogResponseCache) {
+        FilterRegistrationBean<CatalogResponseCacheFilter> registration =
+                new FilterRegistrationBean<>(new CatalogResponseCacheFilter(catalogResponseCache));
+        registration.addUrlPatterns("/brand/*", "/category/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+}
@@ -0,0 +1,138 @@
+package com.upgrad.myntra.api.config;
+
+import org.apache.catalina.connector.CoyoteOutputStream;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Serves catalog GET responses from the {@link CatalogResponseCache}, gzip encoded when the client accepts it, and
+ * stores the successful JSON responses it lets through that carry an ETag and name their dependencies. Conditional requests always go to the
+ * controllers, which answer them from the catalog versions without a query.
+ */
+public class CatalogResponseCacheFilter extends OncePerRequestFilter {
+
+    private static final int COPY_CHUNK = 8192;
+
+    private final CatalogResponseCache cache;
+
+    public CatalogResponseCacheFilter(CatalogResponseCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"GET".equals(request.getMethod())
+                || request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        String key = request.getQueryString() == null ? request.getRequestURI() : request.getRequestURI() + "?" + request.getQueryString();
+        CatalogResponseCache.Entry entry = cache.acquire(key);
+        if (entry != null) {
+            try {
+                write(entry, acceptsGzip(request), response);
+            } finally {
+                cache.release(entry);
+            }
+            return;
+        }
+        long generation = cache.generation();
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(request, wrapper);
+            String[] dependencies = CatalogResponseCache.dependenciesOf(new ServletWebRequest(request));
+            if (dependencies != null && isCacheable(wrapper)) {
+                cache.putIfUnchanged(key, dependencies, wrapper.getContentAsByteArray(), wrapper.getContentType(),
+                        wrapper.getHeader(HttpHeaders.ETAG), lastModified(wrapper), generation);
+            }
+        } finally {
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private static boolean isCacheable(ContentCachingResponseWrapper response) {
+        return response.getStatusCode() == HttpStatus.OK.value()
+                && response.getContentType() != null
+                && response.getContentType().startsWith(MediaType.APPLICATION_JSON_VALUE)
+                && !response.containsHeader(HttpHeaders.SET_COOKIE)
+                // Without its validators a stored response would answer every later request without an ETag.
+                && response.getHeader(HttpHeaders.ETAG) != null;
+    }
+
+    private static long lastModified(HttpServletResponse response) {
+        String value = response.getHeader(HttpHeaders.LAST_MODIFIED);
+        if (value == null) {
+            return -1;
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.LAST_MODIFIED, value);
+        return headers.getLastModified();
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                for (int i = 1; i < parts.length; i++) {
+                    String parameter = parts[i].trim();
+                    if (parameter.startsWith("q=")) {
+                        try {
+                            return Double.parseDouble(parameter.substring(2)) > 0;
+                        } catch (NumberFormatException e) {
+                            return false;
+                        }
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void write(CatalogResponseCache.Entry entry, boolean gzip, HttpServletResponse response) throws IOException {
+        ByteBuffer body = gzip ? entry.getGzip() : entry.getIdentity();
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(entry.getContentType());
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        if (entry.getETag() != null) {
+            response.setHeader(HttpHeaders.ETAG, entry.getETag());
+        }
+        if (entry.getLastModified() >= 0) {
+            response.setDateHeader(HttpHeaders.LAST_MODIFIED, entry.getLastModified());
+        }
+        response.setContentLength(body.remaining());
+        ServletOutputStream out = response.getOutputStream();
+        if (out instanceof CoyoteOutputStream) {
+            // Tomcat copies straight from the direct buffer into its socket buffer, with no byte[] on the heap.
+            ((CoyoteOutputStream) out).write(body);
+        } else {
+            byte[] chunk = new byte[Math.min(COPY_CHUNK, body.remaining())];
+            while (body.hasRemaining()) {
+                int length = Math.min(chunk.length, body.remaining());
+                body.get(chunk, 0, length);
+                out.write(chunk, 0, length);
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.upgrad.myntra.api.config;
+
+import com.upgrad.myntra.service.common.Workload;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded executors for catalog reads, each sized as a share of the JDBC pool so catalog work cannot take every
+ * connection.
+ *
+ * The reactive scheduler runs the blocking JPA calls of the "/reactive" endpoints; there is no reactive driver for
+ * this stack, so the blocking work is isolated there and the servlet thread is released as soon as the Mono or Flux
+ * is returned. The fan-out executor runs the independent sub-queries of a brand detail request concurrently.
+ */
+@Configuration
+public class CatalogSchedulerConfiguration {
+
+    @Autowired
+    private ConnectionPoolLimits connectionPoolLimits;
+
+    @Value("${myntra.catalog.reactive.pool-share:0.5}")
+    private double poolShare;
+
+    @Value("${myntra.catalog.fanout.pool-share:0.25}")
+    private double fanoutPoolShare;
+
+    @Value("${myntra.catalog.fanout.queue-capacity:64}")
+    private int fanoutQueueCapacity;
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler catalogScheduler() {
+        final AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "catalog-reactive-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(connectionPoolLimits.share(Workload.CATALOG, poolShare), threadFactory);
+        return Schedulers.fromExecutorService(executor);
+    }
+
+    /**
+     * Fixed-size executor for brand detail sub-queries. When its queue is full the caller runs the task itself, so a
+     * burst degrades to sequential loading on the request thread rather than queueing without bound.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor catalogFanoutExecutor() {
+        int threads = connectionPoolLimits.share(Workload.CATALOG, fanoutPoolShare);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(fanoutQueueCapacity);
+        executor.setThreadNamePrefix("catalog-fanout-");
+        executor.setDaemon(true);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+}
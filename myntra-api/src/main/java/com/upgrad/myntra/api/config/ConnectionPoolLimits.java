@@ -0,0 +1,48 @@
+package com.upgrad.myntra.api.config;
+
+import com.upgrad.myntra.service.common.Workload;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Concurrency limits derived from the JDBC connection pool sizes, shared by everything in the API module that
+ * decides how much database work may run at once.
+ */
+@Component
+public class ConnectionPoolLimits {
+
+    @Value("${myntra.datasource.pools.auth.maximum-pool-size:" + WorkloadDataSourceConfiguration.DEFAULT_AUTH_POOL_SIZE + "}")
+    private int authPoolSize;
+
+    @Value("${myntra.datasource.pools.catalog.maximum-pool-size:" + WorkloadDataSourceConfiguration.DEFAULT_CATALOG_POOL_SIZE + "}")
+    private int catalogPoolSize;
+
+    @Value("${myntra.datasource.pools.write.maximum-pool-size:" + WorkloadDataSourceConfiguration.DEFAULT_WRITE_POOL_SIZE + "}")
+    private int writePoolSize;
+
+    /**
+     * @return the number of connections across all workload pools.
+     */
+    public int getMaximumPoolSize() {
+        return authPoolSize + catalogPoolSize + writePoolSize;
+    }
+
+    public int getMaximumPoolSize(Workload workload) {
+        switch (workload) {
+            case AUTH:
+                return authPoolSize;
+            case CATALOG:
+                return catalogPoolSize;
+            default:
+                return writePoolSize;
+        }
+    }
+
+    /**
+     * @return the share of the workload's pool, rounded up and at least one connection, that a single consumer may
+     * occupy.
+     */
+    public int share(Workload workload, double fraction) {
+        return Math.max(1, (int) Math.ceil(getMaximumPoolSize(workload) * fraction));
+    }
+}
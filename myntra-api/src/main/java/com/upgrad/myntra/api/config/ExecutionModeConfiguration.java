@@ -0,0 +1,64 @@
+package com.upgrad.myntra.api.config;
+
+import org.apache.coyote.AbstractProtocol;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Request execution mode of the embedded Tomcat, selected with "myntra.execution.mode".
+ *
+ * "platform" (the default) keeps Tomcat's bounded worker pool. "virtual" hands every request to its own virtual
+ * thread, so requests blocked on JDBC no longer pin a platform thread; a limiter sized from the connection pool then
+ * keeps the number of requests in flight proportional to what the database can serve. Virtual threads need a Java
+ * 21 runtime; the executor is looked up reflectively so the module still builds for older targets. They also need
+ * pgjdbc 42.6 or newer: older drivers do their socket I/O inside synchronized blocks, which pins the carrier thread
+ * for the whole query and leaves nothing gained over platform threads.
+ */
+@Configuration
+@ConditionalOnProperty(name = "myntra.execution.mode", havingValue = "virtual")
+public class ExecutionModeConfiguration {
+
+    @Autowired
+    private ConnectionPoolLimits connectionPoolLimits;
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService requestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("myntra.execution.mode=virtual requires a Java 21 or newer runtime", e);
+        }
+    }
+
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> virtualThreadConnector(final ExecutorService requestExecutor) {
+        return factory -> factory.addConnectorCustomizers(connector -> {
+            ProtocolHandler handler = connector.getProtocolHandler();
+            if (handler instanceof AbstractProtocol) {
+                ((AbstractProtocol<?>) handler).setExecutor(requestExecutor);
+            }
+        });
+    }
+
+    @Bean
+    public FilterRegistrationBean<DatabaseConcurrencyLimitFilter> databaseConcurrencyLimitFilter(
+            @Value("${myntra.execution.requests-per-connection:4}") int requestsPerConnection,
+            @Value("${myntra.execution.queue-timeout-ms:2000}") long queueTimeoutMillis) {
+        int permits = connectionPoolLimits.getMaximumPoolSize() * requestsPerConnection;
+        FilterRegistrationBean<DatabaseConcurrencyLimitFilter> registration =
+                new FilterRegistrationBean<>(new DatabaseConcurrencyLimitFilter(permits, queueTimeoutMillis));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
+        return registration;
+    }
+}
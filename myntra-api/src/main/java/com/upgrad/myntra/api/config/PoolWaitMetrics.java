@@ -0,0 +1,81 @@
+package com.upgrad.myntra.api.config;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records how long callers wait for a connection from each Hikari pool, and how often they give up, exported over
+ * JMX. Hikari's own MBeans report the pool occupancy; these numbers show what that occupancy costs the callers.
+ */
+@ManagedResource(objectName = "com.upgrad.myntra:type=ConnectionPoolWaits", description = "Connection acquisition wait times per pool")
+public class PoolWaitMetrics implements MetricsTrackerFactory {
+
+    private final Map<String, PoolWaits> pools = new ConcurrentHashMap<>();
+
+    @Override
+    public IMetricsTracker create(final String poolName, final PoolStats poolStats) {
+        return pools.computeIfAbsent(poolName, name -> new PoolWaits());
+    }
+
+    @ManagedOperation(description = "Acquisition count, mean and max wait in ms, and timeouts per pool")
+    public Map<String, String> waitStatistics() {
+        Map<String, String> statistics = new TreeMap<>();
+        pools.forEach((name, waits) -> statistics.put(name, waits.describe()));
+        return statistics;
+    }
+
+    @ManagedOperation(description = "Resets the wait statistics of every pool")
+    public void reset() {
+        pools.values().forEach(PoolWaits::reset);
+    }
+
+    private static final class PoolWaits implements IMetricsTracker {
+
+        private final LongAdder acquisitions = new LongAdder();
+
+        private final LongAdder totalWaitNanos = new LongAdder();
+
+        private final AtomicLong maxWaitNanos = new AtomicLong();
+
+        private final LongAdder timeouts = new LongAdder();
+
+        @Override
+        public void recordConnectionAcquiredNanos(final long elapsedAcquiredNanos) {
+            acquisitions.increment();
+            totalWaitNanos.add(elapsedAcquiredNanos);
+            long max = maxWaitNanos.get();
+            while (elapsedAcquiredNanos > max && !maxWaitNanos.compareAndSet(max, elapsedAcquiredNanos)) {
+                max = maxWaitNanos.get();
+            }
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            timeouts.increment();
+        }
+
+        String describe() {
+            long count = acquisitions.sum();
+            double meanMillis = count == 0 ? 0 : totalWaitNanos.sum() / (double) count / TimeUnit.MILLISECONDS.toNanos(1);
+            double maxMillis = maxWaitNanos.get() / (double) TimeUnit.MILLISECONDS.toNanos(1);
+            return String.format("acquisitions=%d meanWaitMs=%.3f maxWaitMs=%.3f timeouts=%d", count, meanMillis, maxMillis, timeouts.sum());
+        }
+
+        void reset() {
+            acquisitions.reset();
+            totalWaitNanos.reset();
+            maxWaitNanos.set(0);
+            timeouts.reset();
+        }
+    }
+}
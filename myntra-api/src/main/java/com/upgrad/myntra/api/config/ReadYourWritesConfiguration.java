@@ -0,0 +1,92 @@
+package com.upgrad.myntra.api.config;
+
+import com.upgrad.myntra.service.common.ReadYourWrites;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.time.Duration;
+
+/**
+ * Carries read-your-writes stickiness across requests. A response to a request that committed a write sets a cookie
+ * holding the time until which the client's reads should stay on the primary; requests presenting an unexpired
+ * cookie are pinned to the primary for their whole duration.
+ */
+@Configuration
+public class ReadYourWritesConfiguration implements WebMvcConfigurer {
+
+    static final String COOKIE_NAME = "MYNTRA_PRIMARY_UNTIL";
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                if (isPinned(request.getCookies())) {
+                    ReadYourWrites.pinToPrimary();
+                }
+                return true;
+            }
+
+            @Override
+            public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+                ReadYourWrites.clear();
+            }
+        });
+    }
+
+    private static boolean isPinned(Cookie[] cookies) {
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue()) > System.currentTimeMillis();
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds the stickiness cookie before the body is written, while the headers can still be changed.
+     */
+    @ControllerAdvice
+    public static class StickinessCookieAdvice implements ResponseBodyAdvice<Object> {
+
+        @Value("${myntra.datasource.replica.sticky-seconds:10}")
+        private long stickySeconds;
+
+        @Override
+        public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+            return true;
+        }
+
+        @Override
+        public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                      Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                      ServerHttpRequest request, ServerHttpResponse response) {
+            if (ReadYourWrites.hasWritten()) {
+                long until = System.currentTimeMillis() + Duration.ofSeconds(stickySeconds).toMillis();
+                response.getHeaders().add(HttpHeaders.SET_COOKIE, COOKIE_NAME + "=" + until + "; Max-Age=" + stickySeconds + "; Path=/; HttpOnly");
+            }
+            return body;
+        }
+    }
+}
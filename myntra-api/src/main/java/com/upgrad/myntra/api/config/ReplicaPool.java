@@ -0,0 +1,91 @@
+package com.upgrad.myntra.api.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Connection pool of the read replica together with its lag guard. The replica is only handed out while the last
+ * check found it reachable and no further behind the primary than the configured limit; until the first check and
+ * whenever it falls behind, reads go to the primary pools instead.
+ *
+ * Lag is the age of the last replayed transaction, so an idle primary makes the replica look stale and reads fall
+ * back to the primary until the next write is replayed. That errs on the safe side.
+ */
+@ManagedResource(objectName = "com.upgrad.myntra:type=ReplicaPool", description = "Read replica pool and lag guard")
+public class ReplicaPool {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReplicaPool.class);
+
+    private static final String LAG_SQL = "SELECT CASE WHEN pg_is_in_recovery() "
+            + "THEN COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, -1) ELSE 0 END";
+
+    private final HikariDataSource dataSource;
+
+    private final long maxLagMillis;
+
+    private volatile boolean usable;
+
+    private volatile long lagMillis = -1;
+
+    ReplicaPool(final HikariDataSource dataSource, final long maxLagMillis) {
+        this.dataSource = dataSource;
+        this.maxLagMillis = maxLagMillis;
+    }
+
+    DataSource getDataSource() {
+        return dataSource;
+    }
+
+    /**
+     * @return true when reads may be sent to the replica.
+     */
+    public boolean isUsable() {
+        return usable;
+    }
+
+    @ManagedAttribute(description = "Whether reads are currently routed to the replica")
+    public boolean getUsable() {
+        return usable;
+    }
+
+    @ManagedAttribute(description = "Replication lag in ms measured by the last check, -1 when unknown")
+    public long getLagMillis() {
+        return lagMillis;
+    }
+
+    @Scheduled(fixedDelayString = "${myntra.datasource.replica.lag-check-ms:1000}")
+    public void checkLag() {
+        boolean wasUsable = usable;
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(LAG_SQL)) {
+            resultSet.next();
+            lagMillis = resultSet.getLong(1);
+            usable = lagMillis >= 0 && lagMillis <= maxLagMillis;
+        } catch (SQLException e) {
+            lagMillis = -1;
+            usable = false;
+            if (wasUsable) {
+                LOG.warn("Read replica unreachable, routing reads to the primary", e);
+            }
+            return;
+        }
+        if (wasUsable != usable) {
+            LOG.info("Read replica {} (lag {} ms, limit {} ms)", usable ? "in use" : "bypassed", lagMillis, maxLagMillis);
+        }
+    }
+
+    void close() {
+        dataSource.close();
+    }
+}
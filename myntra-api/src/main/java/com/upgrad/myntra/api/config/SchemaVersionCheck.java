@@ -0,0 +1,46 @@
+package com.upgrad.myntra.api.config;
+
+import com.upgrad.myntra.db.migration.MigrationException;
+import com.upgrad.myntra.db.migration.MigrationRunner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.sql.DataSource;
+
+/**
+ * Verifies at startup that the database has every migration this build was packaged with, unchanged. Migrations are
+ * applied ahead of a deploy with the myntra-db "migrate" profile; the application never changes the schema itself.
+ */
+@Component
+public class SchemaVersionCheck {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SchemaVersionCheck.class);
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${myntra.schema.check:fail}")
+    private String mode;
+
+    @PostConstruct
+    public void check() {
+        if ("off".equalsIgnoreCase(mode)) {
+            return;
+        }
+        MigrationRunner runner = new MigrationRunner(dataSource);
+        try {
+            runner.validate();
+            LOG.info("Database schema is at version {} or newer", runner.getLatestVersion());
+        } catch (MigrationException e) {
+            if ("warn".equalsIgnoreCase(mode)) {
+                LOG.warn("Database schema check failed", e);
+            } else {
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.upgrad.myntra.api.config;
+
+import com.upgrad.myntra.service.common.Workload;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One Hikari pool per {@link Workload}, so that slow catalog reads or a burst of signups cannot exhaust the
+ * connections that authorization of every request depends on.
+ *
+ * Connection details come from "spring.datasource"; each pool is tuned under "myntra.datasource.pools.&lt;workload&gt;"
+ * with Hikari's property names. The primary DataSource routes by workload and only fetches a connection when the
+ * first statement runs, by which time the workload of the call is known.
+ *
+ * When "myntra.datasource.replica.pool.jdbc-url" is set, read-only transactions of the workloads listed in
+ * "myntra.datasource.replica.workloads" are served by a read replica pool, subject to its lag guard.
+ */
+@Configuration
+public class WorkloadDataSourceConfiguration {
+
+    static final int DEFAULT_AUTH_POOL_SIZE = 5;
+
+    static final int DEFAULT_CATALOG_POOL_SIZE = 10;
+
+    static final int DEFAULT_WRITE_POOL_SIZE = 5;
+
+    private static final String POOLS_PREFIX = "myntra.datasource.pools.";
+
+    private static final String REPLICA_POOL_PREFIX = "myntra.datasource.replica.pool";
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    @Autowired
+    private Environment environment;
+
+    private final Map<Workload, HikariDataSource> pools = new EnumMap<>(Workload.class);
+
+    @Bean
+    public PoolWaitMetrics poolWaitMetrics() {
+        return new PoolWaitMetrics();
+    }
+
+    @Value("${myntra.datasource.replica.max-lag-ms:5000}")
+    private long replicaMaxLagMillis;
+
+    @Value("${myntra.datasource.replica.workloads:CATALOG}")
+    private Workload[] replicaWorkloads;
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnExpression("!'${" + REPLICA_POOL_PREFIX + ".jdbc-url:}'.isEmpty()")
+    public ReplicaPool replicaPool(PoolWaitMetrics poolWaitMetrics) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("myntra-replica");
+        config.setDriverClassName(dataSourceProperties.determineDriverClassName());
+        config.setUsername(dataSourceProperties.determineUsername());
+        config.setPassword(dataSourceProperties.determinePassword());
+        config.setReadOnly(true);
+        applyDefaults(config, "replica", DEFAULT_CATALOG_POOL_SIZE);
+        Binder.get(environment).bind(REPLICA_POOL_PREFIX, Bindable.ofInstance(config));
+        config.setMetricsTrackerFactory(poolWaitMetrics);
+        return new ReplicaPool(new HikariDataSource(config), replicaMaxLagMillis);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(PoolWaitMetrics poolWaitMetrics, ObjectProvider<ReplicaPool> replicaPool) {
+        Map<Object, Object> targets = new HashMap<>();
+        for (Workload workload : Workload.values()) {
+            HikariDataSource pool = new HikariDataSource(poolConfig(workload, poolWaitMetrics));
+            pools.put(workload, pool);
+            targets.put(workload, pool);
+        }
+        ReplicaPool replica = replicaPool.getIfAvailable();
+        if (replica != null) {
+            targets.put(WorkloadRoutingDataSource.REPLICA, replica.getDataSource());
+        }
+        Set<Workload> readWorkloads = EnumSet.noneOf(Workload.class);
+        readWorkloads.addAll(Arrays.asList(replicaWorkloads));
+        WorkloadRoutingDataSource routing = new WorkloadRoutingDataSource(replica, readWorkloads);
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(pools.get(Workload.WRITE));
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @PreDestroy
+    public void closePools() {
+        pools.values().forEach(HikariDataSource::close);
+    }
+
+    private HikariConfig poolConfig(Workload workload, PoolWaitMetrics poolWaitMetrics) {
+        String name = workload.name().toLowerCase(Locale.ROOT);
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("myntra-" + name);
+        config.setDriverClassName(dataSourceProperties.determineDriverClassName());
+        config.setJdbcUrl(dataSourceProperties.determineUrl());
+        config.setUsername(dataSourceProperties.determineUsername());
+        config.setPassword(dataSourceProperties.determinePassword());
+        applyDefaults(config, name, defaultPoolSize(workload));
+
+        Binder.get(environment).bind(POOLS_PREFIX + name, Bindable.ofInstance(config));
+        config.setMetricsTrackerFactory(poolWaitMetrics);
+        return config;
+    }
+
+    private static void applyDefaults(HikariConfig config, String name, int poolSize) {
+        config.setMaximumPoolSize(poolSize);
+        config.setLeakDetectionThreshold(TimeUnit.SECONDS.toMillis(30));
+        config.setRegisterMbeans(true);
+        // Server-side prepared statements: pgjdbc switches a statement to a named one after it has run
+        // "prepareThreshold" times on a connection and keeps up to the configured number of them per connection.
+        config.addDataSourceProperty("prepareThreshold", 3);
+        config.addDataSourceProperty("preparedStatementCacheQueries", 256);
+        config.addDataSourceProperty("preparedStatementCacheSizeMiB", 5);
+        config.addDataSourceProperty("ApplicationName", "myntra-api/" + name);
+    }
+
+    private static int defaultPoolSize(Workload workload) {
+        switch (workload) {
+            case AUTH:
+                return DEFAULT_AUTH_POOL_SIZE;
+            case CATALOG:
+                return DEFAULT_CATALOG_POOL_SIZE;
+            default:
+                return DEFAULT_WRITE_POOL_SIZE;
+        }
+    }
+}
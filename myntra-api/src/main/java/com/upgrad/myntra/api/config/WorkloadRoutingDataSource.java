@@ -0,0 +1,67 @@
+package com.upgrad.myntra.api.config;
+
+import com.upgrad.myntra.service.common.ReadYourWrites;
+import com.upgrad.myntra.service.common.Workload;
+import com.upgrad.myntra.service.common.WorkloadContext;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Set;
+
+/**
+ * Hands out connections from the pool of the current thread's {@link Workload}. Read-only transactions of the
+ * replica workloads go to the read replica while it is usable and the thread is not pinned to the primary; a
+ * committed read-write transaction pins the thread so that its own writes stay visible.
+ */
+class WorkloadRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String REPLICA = "replica";
+
+    private static final Object WRITE_TRACKED = new Object();
+
+    private final ReplicaPool replicaPool;
+
+    private final Set<Workload> replicaWorkloads;
+
+    WorkloadRoutingDataSource(final ReplicaPool replicaPool, final Set<Workload> replicaWorkloads) {
+        this.replicaPool = replicaPool;
+        this.replicaWorkloads = replicaWorkloads;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Workload workload = WorkloadContext.current();
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return workload;
+        }
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (replicaPool != null && replicaPool.isUsable() && replicaWorkloads.contains(workload)
+                    && !ReadYourWrites.isPinnedToPrimary()) {
+                return REPLICA;
+            }
+            return workload;
+        }
+        trackWrite();
+        return workload;
+    }
+
+    private static void trackWrite() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(WRITE_TRACKED)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(WRITE_TRACKED, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                ReadYourWrites.recordWrite();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(WRITE_TRACKED);
+            }
+        });
+    }
+}
@@ -2,11 +2,13 @@ package com.upgrad.myntra.api.controllers;
 
 
 
+import com.upgrad.myntra.service.business.AddressRecord;
 import com.upgrad.myntra.service.business.AddressService;
 import com.upgrad.myntra.service.business.CustomerService;
 import com.upgrad.myntra.service.entity.AddressEntity;
 import com.upgrad.myntra.service.entity.CustomerAddressEntity;
 import com.upgrad.myntra.service.entity.CustomerEntity;
+import com.upgrad.myntra.service.entity.StateEntity;
 import com.upgrad.myntra.service.exception.AddressNotFoundException;
 import com.upgrad.myntra.service.exception.AuthorizationFailedException;
 import com.upgrad.myntra.service.exception.SaveAddressException;
@@ -17,9 +19,11 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import com.upgrad.myntra.api.model.*;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
+@RestController
 @RequestMapping("/address")
 public class AddressController {
 
@@ -45,18 +49,17 @@ public class AddressController {
 
         AddressEntity addressEntity = new AddressEntity();
         addressEntity.setCity(saveAddressRequest.getCity());
-        addressEntity.setUuid(saveAddressRequest.getStateUuid());
+        addressEntity.setState(new StateEntity(parseStateUuid(saveAddressRequest.getStateUuid()), null));
         addressEntity.setFlatBuilNo(saveAddressRequest.getFlatBuildingName());
         addressEntity.setLocality(saveAddressRequest.getLocality());
         addressEntity.setPincode(saveAddressRequest.getPincode());
 
         CustomerAddressEntity customerAddressEntity = new CustomerAddressEntity();
-        customerAddressEntity.setId(customerEntity.getId());
         customerAddressEntity.setCustomer(customerEntity);
         customerAddressEntity.setAddress(addressEntity);
 
         addressEntity = addressService.saveAddress(addressEntity,customerAddressEntity);
-        SaveAddressResponse aur=new SaveAddressResponse().id(addressEntity.getUuid()).status("ADDRESS SUCCESSFULLY REGISTERED");
+        SaveAddressResponse aur=new SaveAddressResponse().id(addressEntity.getUuid().toString()).status("ADDRESS SUCCESSFULLY REGISTERED");
         return new ResponseEntity<SaveAddressResponse>(aur, HttpStatus.OK);
     }
 
@@ -70,12 +73,10 @@ public class AddressController {
      * @throws //AddressNotFoundException
      */
     @DeleteMapping("/{addressId}")
-    public ResponseEntity<DeleteAddressResponse>deleteAddress(@PathVariable("addressId") String addressId,@RequestHeader("authorization")final String authentication)throws Exception{
+    public ResponseEntity<DeleteAddressResponse>deleteAddress(@PathVariable("addressId") UUID addressId,@RequestHeader("authorization")final String authentication)throws Exception{
         CustomerEntity customerEntity=customerService.getCustomer(authentication);
-        if(addressId!=customerEntity.getUuid())
-            throw new AuthorizationFailedException("ATHR-004","You are not authorized to view/update/delete any one else's address");
         addressService.deleteAddress(addressService.getAddressByUUID(addressId,customerEntity));
-        DeleteAddressResponse deleteAddressResponse=new DeleteAddressResponse().id(UUID.fromString(addressId));
+        DeleteAddressResponse deleteAddressResponse=new DeleteAddressResponse().id(addressId);
         return new ResponseEntity<DeleteAddressResponse>(deleteAddressResponse,HttpStatus.OK);
     }
 
@@ -89,11 +90,11 @@ public class AddressController {
     @GetMapping("/customer")
     public ResponseEntity<AddressListResponse>getAllAddress(@RequestHeader("authorization")final String authentication)throws Exception{
         CustomerEntity customerEntity=customerService.getCustomer(authentication);
-        List<AddressEntity>list=addressService.getAllAddress(customerEntity);
-        List<AddressList>addressLists1=null;
-        for(int i=0;i<list.size();i++){
-            AddressListState addressListState=new AddressListState().id(UUID.fromString(list.get(i).getState().getUuid())).stateName(list.get(i).getState().getStateName());
-            AddressList addressList=new AddressList().id(UUID.fromString(list.get(i).getUuid())).flatBuildingName(list.get(i).getFlatBuilNo()).city(list.get(i).getCity()).locality(list.get(i).getLocality()).pincode(list.get(i).getPincode()).state(addressListState);
+        List<AddressRecord>list=addressService.getAddressBook(customerEntity);
+        List<AddressList>addressLists1=new ArrayList<AddressList>(list.size());
+        for(AddressRecord address : list){
+            AddressListState addressListState=new AddressListState().id(address.getStateUuid()).stateName(address.getStateName());
+            AddressList addressList=new AddressList().id(address.getUuid()).flatBuildingName(address.getFlatBuilNo()).city(address.getCity()).locality(address.getLocality()).pincode(address.getPincode()).state(addressListState);
             addressLists1.add(addressList);
         }
 
@@ -101,4 +102,12 @@ public class AddressController {
         return new ResponseEntity<AddressListResponse>(addressLists, HttpStatus.OK);
     }
 
+    private static UUID parseStateUuid(String stateUuid) throws SaveAddressException {
+        try {
+            return stateUuid==null ? null : UUID.fromString(stateUuid);
+        } catch (IllegalArgumentException e) {
+            throw new SaveAddressException("ANF-002","No state by this id");
+        }
+    }
+
 }
@@ -2,7 +2,9 @@ package com.upgrad.myntra.api.controllers;
 
 
 
+import com.upgrad.myntra.api.config.CatalogResponseCache;
 import com.upgrad.myntra.service.business.BrandService;
+import com.upgrad.myntra.service.business.CatalogVersions;
 import com.upgrad.myntra.service.business.CategoryService;
 import com.upgrad.myntra.service.business.CustomerService;
 import com.upgrad.myntra.service.business.ItemService;
@@ -12,12 +14,15 @@ import com.upgrad.myntra.service.entity.CategoryEntity;
 import com.upgrad.myntra.service.entity.ItemEntity;
 import com.upgrad.myntra.service.exception.BrandNotFoundException;
 import com.upgrad.myntra.service.exception.CategoryNotFoundException;
+import com.upgrad.myntra.service.exception.ItemSearchException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.repository.query.Param;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import com.upgrad.myntra.api.model.*;
 
 import java.math.BigDecimal;
@@ -25,6 +30,10 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
 
 @RequestMapping("/brand")
 @RestController
@@ -38,8 +47,16 @@ public class BrandController {
 
 	@Autowired private CustomerService customerService;
 
+	@Autowired private CatalogResponseMapper catalogResponseMapper;
+
+	@Autowired private CatalogVersions catalogVersions;
+
+	@Autowired @Qualifier("catalogFanoutExecutor") private Executor catalogFanoutExecutor;
+
 	/**
 	 * A controller method to get a Brand details from the database.
+	 * A request whose validators match the brand's current version is answered with 304 Not Modified without
+	 * querying the database.
 	 *
 	 * @param brandId - The uuid of the Brand whose details has to be fetched from the database.
 	 * @return - ResponseEntity<BrandDetailsResponse> type object along with Http status OK.
@@ -48,47 +65,91 @@ public class BrandController {
 	 * @throws BrandNotFoundException
 	 */
 	@GetMapping("{brandId}")
-	public ResponseEntity<BrandDetailsResponse> BrandById(@PathVariable(name = "brandId",required = false) String brandId) throws BrandNotFoundException {
+	public ResponseEntity<BrandDetailsResponse> BrandById(@PathVariable(name = "brandId",required = false) UUID brandId, WebRequest webRequest) throws BrandNotFoundException {
 		if(brandId==null)
 			throw new BrandNotFoundException("RNF-002","Brand id field should not be empty");
+		// The version is read before any query, so a change committed meanwhile can only make the ETag older.
+		CatalogVersions.Stamp stamp = catalogVersions.brandStamp(brandId);
+		if(stamp!=null && webRequest.checkNotModified(stamp.getETag(), stamp.getLastModified()))
+			return null;
 		BrandEntity brandEntity = this.brandService.brandByUUID(brandId);
-		BrandDetailsResponse brandDetailsResponse = new BrandDetailsResponse();
-
-		AddressEntity brandAddress = brandEntity.getAddress();
-		BrandDetailsResponseAddressState state = new BrandDetailsResponseAddressState();
-		state.id(UUID.fromString(brandAddress.getState().getUuid())).stateName(brandAddress.getState().getStateName());
-
-		BrandDetailsResponseAddress responseAddress = new BrandDetailsResponseAddress();
-		responseAddress.id(UUID.fromString(brandAddress.getUuid())).flatBuildingName(brandAddress.getFlatBuilNo()).locality(brandAddress.getLocality()).city(brandAddress.getCity()).pincode(brandAddress.getPincode()).state(state);
-
-		brandDetailsResponse.id(UUID.fromString(brandEntity.getUuid())).brandName(brandEntity.getbrandName()).address(responseAddress).customerRating(BigDecimal.valueOf(brandEntity.getCustomerRating())).numberCustomersRated(brandEntity.getNumberCustomersRated());
-		List<CategoryEntity> brandCategories = this.categoryService.getCategoriesByBrand(brandEntity.getUuid());
-		List<CategoryList> categoryListArrayList = new ArrayList();
-		Iterator var8 = brandCategories.iterator();
-
-		while(var8.hasNext()) {
-			CategoryEntity category = (CategoryEntity)var8.next();
-			CategoryList categoryList = new CategoryList();
-			categoryList.id(UUID.fromString(category.getUuid())).categoryName(category.getCategoryName());
-			List<ItemEntity> itemEntities = this.itemService.getItemsByCategoryAndBrand(brandEntity.getUuid(), category.getUuid());
-			List<ItemList> itemListArrayList = new ArrayList();
-			Iterator var13 = itemEntities.iterator();
-
-			while(var13.hasNext()) {
-				ItemEntity itemEntity = (ItemEntity)var13.next();
-				ItemList itemList = new ItemList();
-				itemList.id(UUID.fromString(itemEntity.getUuid())).itemName(itemEntity.getItemName()).price(itemEntity.getPrice());
-				itemListArrayList.add(itemList);
-			}
-
-			categoryList.itemList(itemListArrayList);
-			categoryListArrayList.add(categoryList);
+		if(brandEntity==null)
+			throw new BrandNotFoundException("RNF-001","No brand by this id");
+		final Integer brandKey = brandEntity.getId();
+		if(stamp==null) {
+			// First request for the brand on this instance: the version is taken now, and the brand read again, so
+			// the body is never older than the ETag it is served with.
+			stamp = catalogVersions.registerBrand(brandId, brandKey);
+			if(webRequest.checkNotModified(stamp.getETag(), stamp.getLastModified()))
+				return null;
+			brandEntity = this.brandService.brandByUUID(brandId);
+			if(brandEntity==null)
+				throw new BrandNotFoundException("RNF-001","No brand by this id");
+		}
+
+		// Categories and the items of each category are independent queries, so they run on the fan-out executor
+		// while this thread maps the brand and its address.
+		CompletableFuture<List<CategoryList>> categories = CompletableFuture
+				.supplyAsync(() -> this.categoryService.getCategoriesByBrand(brandKey), catalogFanoutExecutor)
+				.thenCompose(brandCategories -> {
+					List<CompletableFuture<CategoryList>> groups = new ArrayList<>(brandCategories.size());
+					for(CategoryEntity category : brandCategories) {
+						groups.add(CompletableFuture.supplyAsync(() -> getCategoryListWithItems(brandKey, category), catalogFanoutExecutor));
+					}
+					return CompletableFuture.allOf(groups.toArray(new CompletableFuture[0]))
+							.thenApply(done -> groups.stream().map(CompletableFuture::join).collect(Collectors.toList()));
+				});
+
+		BrandDetailsResponse brandDetailsResponse = catalogResponseMapper.toBrandDetails(brandEntity);
+		List<CategoryList> categoryListArrayList;
+		try {
+			categoryListArrayList = categories.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			throw e;
 		}
 
 		brandDetailsResponse.categories(categoryListArrayList);
+		CatalogResponseCache.dependsOn(webRequest, CatalogResponseCache.brand(brandKey), CatalogResponseCache.LISTED_ROWS);
 		return new ResponseEntity(brandDetailsResponse, HttpStatus.OK);
 	}
 
+	/**
+	 * A controller method to get a page of the items of a Brand within a price range, sorted by price.
+	 *
+	 * @param brandId - The uuid of the Brand whose items are listed.
+	 * @param minPrice - Lowest price of the listed items, unbounded when absent.
+	 * @param maxPrice - Highest price of the listed items, unbounded when absent.
+	 * @param sort - asc or desc, asc when absent.
+	 * @param cursor - next_cursor of the previous page, absent for the first page.
+	 * @param limit - Number of items in the page.
+	 * @return - ResponseEntity<ItemPageResponse> type object along with Http status OK.
+	 * @throws BrandNotFoundException
+	 * @throws ItemSearchException
+	 */
+	@GetMapping("{brandId}/items")
+	public ResponseEntity<ItemPageResponse> getItemsByBrandAndPrice(@PathVariable(name = "brandId",required = false) UUID brandId,
+																	@RequestParam(name = "min_price", required = false) Integer minPrice,
+																	@RequestParam(name = "max_price", required = false) Integer maxPrice,
+																	@RequestParam(name = "sort", required = false) String sort,
+																	@RequestParam(name = "cursor", required = false) String cursor,
+																	@RequestParam(name = "limit", required = false) Integer limit) throws BrandNotFoundException, ItemSearchException {
+		if(brandId==null)
+			throw new BrandNotFoundException("RNF-002","Brand id field should not be empty");
+		BrandEntity brandEntity = this.brandService.brandByUUID(brandId);
+		if(brandEntity==null)
+			throw new BrandNotFoundException("RNF-001","No brand by this id");
+		List<ItemEntity> items = this.itemService.getItemsByBrandAndPrice(brandEntity.getId(), minPrice, maxPrice, sort, cursor, limit);
+		List<ItemList> itemLists = new ArrayList<ItemList>();
+		for(ItemEntity itemEntity: items)
+		{
+			itemLists.add(catalogResponseMapper.toItemList(itemEntity));
+		}
+		ItemPageResponse itemPageResponse = new ItemPageResponse().items(itemLists).nextCursor(this.itemService.getNextPriceCursor(items, limit));
+		return new ResponseEntity(itemPageResponse, HttpStatus.OK);
+	}
+
 	/**
 	 * A controller method to get Brand details by its name from the database.
 	 *
@@ -113,7 +174,7 @@ public class BrandController {
 	 * @throws CategoryNotFoundException
 	 */
 	@GetMapping("/category/{categoryId}")
-	public ResponseEntity<BrandListResponse> getBrandsByCategoryId(@PathVariable(name="categoryId", required = false)String categoryId) throws CategoryNotFoundException{
+	public ResponseEntity<BrandListResponse> getBrandsByCategoryId(@PathVariable(name="categoryId", required = false)UUID categoryId) throws CategoryNotFoundException{
 		if(categoryId==null)
 			throw new CategoryNotFoundException("CNF-001","Brand name field should not be empty");
 		List<BrandEntity> brandEntities = brandService.brandByCategory(categoryId);
@@ -131,30 +192,23 @@ public class BrandController {
 	 */
 
 
+	private CategoryList getCategoryListWithItems(Integer brandKey, CategoryEntity category)
+	{
+		List<ItemList> itemLists = new ArrayList<ItemList>();
+		for(ItemEntity itemEntity: this.itemService.getItemsByCategoryAndBrand(brandKey, category.getId()))
+		{
+			itemLists.add(catalogResponseMapper.toItemList(itemEntity));
+		}
+		return catalogResponseMapper.toCategoryList(category, itemLists);
+	}
+
 	public BrandListResponse getBrandListResponseFromBrandEntities(List<BrandEntity> brandEntities)
 	{
 		BrandListResponse brandListResponse = new BrandListResponse();
 		List<BrandList> brandLists = new ArrayList<BrandList>();
 		for(BrandEntity brandEntity: brandEntities)
 		{
-			AddressEntity brandAddress = brandEntity.getAddress();
-			BrandDetailsResponseAddressState brandDetailsResponseAddressState = new BrandDetailsResponseAddressState();
-			brandDetailsResponseAddressState.id(UUID.fromString(brandAddress.getState().getUuid())).stateName(brandAddress.getState().getStateName());
-			BrandDetailsResponseAddress brandDetailsResponseAddress = new BrandDetailsResponseAddress();
-			brandDetailsResponseAddress.id(UUID.fromString(brandAddress.getUuid())).flatBuildingName(brandAddress.getFlatBuilNo()).locality(brandAddress.getLocality()).city(brandAddress.getCity()).pincode(brandAddress.getPincode()).state(brandDetailsResponseAddressState);
-			List<CategoryEntity> brandCategoriesList = brandEntity.getCategories();
-			StringBuilder sb = new StringBuilder();
-
-			for(int index = 0; index < brandCategoriesList.size(); ++index) {
-				sb.append(((CategoryEntity)brandCategoriesList.get(index)).getCategoryName());
-				if (index < brandCategoriesList.size() - 1) {
-					sb.append(",").append(" ");
-				}
-			}
-			BrandList brandList = new BrandList();
-			brandList.id(UUID.fromString(brandEntity.getUuid())).brandName(brandEntity.getbrandName()).address(brandDetailsResponseAddress).customerRating(BigDecimal.valueOf(brandEntity.getCustomerRating())).numberCustomersRated(brandEntity.getNumberCustomersRated()).categories(sb.toString());
-
-			brandLists.add(brandList);
+			brandLists.add(catalogResponseMapper.toBrandList(brandEntity));
 		}
 		brandListResponse.setBrands(brandLists);
 		return brandListResponse;
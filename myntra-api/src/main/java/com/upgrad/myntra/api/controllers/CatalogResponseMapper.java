@@ -0,0 +1,60 @@
+package com.upgrad.myntra.api.controllers;
+
+import com.upgrad.myntra.api.model.*;
+import com.upgrad.myntra.service.entity.AddressEntity;
+import com.upgrad.myntra.service.entity.BrandEntity;
+import com.upgrad.myntra.service.entity.CategoryEntity;
+import com.upgrad.myntra.service.entity.ItemEntity;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Maps catalog entities to the generated response models, shared by the MVC and reactive catalog endpoints.
+ */
+@Component
+public class CatalogResponseMapper {
+
+	public BrandDetailsResponseAddress toBrandAddress(AddressEntity brandAddress) {
+		BrandDetailsResponseAddressState state = new BrandDetailsResponseAddressState();
+		state.id(brandAddress.getState().getUuid()).stateName(brandAddress.getState().getStateName());
+		BrandDetailsResponseAddress responseAddress = new BrandDetailsResponseAddress();
+		responseAddress.id(brandAddress.getUuid()).flatBuildingName(brandAddress.getFlatBuilNo()).locality(brandAddress.getLocality()).city(brandAddress.getCity()).pincode(brandAddress.getPincode()).state(state);
+		return responseAddress;
+	}
+
+	public BrandDetailsResponse toBrandDetails(BrandEntity brandEntity) {
+		BrandDetailsResponse brandDetailsResponse = new BrandDetailsResponse();
+		brandDetailsResponse.id(brandEntity.getUuid()).brandName(brandEntity.getbrandName()).address(toBrandAddress(brandEntity.getAddress())).customerRating(BigDecimal.valueOf(brandEntity.getCustomerRating())).numberCustomersRated(brandEntity.getNumberCustomersRated());
+		return brandDetailsResponse;
+	}
+
+	public BrandList toBrandList(BrandEntity brandEntity) {
+		List<CategoryEntity> brandCategoriesList = brandEntity.getCategories();
+		StringBuilder sb = new StringBuilder();
+		for(int index = 0; index < brandCategoriesList.size(); ++index) {
+			sb.append(brandCategoriesList.get(index).getCategoryName());
+			if (index < brandCategoriesList.size() - 1) {
+				sb.append(",").append(" ");
+			}
+		}
+		BrandList brandList = new BrandList();
+		brandList.id(brandEntity.getUuid()).brandName(brandEntity.getbrandName()).address(toBrandAddress(brandEntity.getAddress())).customerRating(BigDecimal.valueOf(brandEntity.getCustomerRating())).numberCustomersRated(brandEntity.getNumberCustomersRated()).categories(sb.toString());
+		return brandList;
+	}
+
+	public CategoryList toCategoryList(CategoryEntity category, List<ItemList> items) {
+		CategoryList categoryList = new CategoryList();
+		categoryList.id(category.getUuid()).categoryName(category.getCategoryName()).itemList(items);
+		return categoryList;
+	}
+
+	public CategoryListResponse toCategoryListResponse(CategoryEntity category) {
+		return new CategoryListResponse().id(category.getUuid()).categoryName(category.getCategoryName());
+	}
+
+	public ItemList toItemList(ItemEntity itemEntity) {
+		return new ItemList().id(itemEntity.getUuid()).itemName(itemEntity.getItemName()).price(itemEntity.getPrice());
+	}
+}
@@ -0,0 +1,97 @@
+package com.upgrad.myntra.api.controllers;
+
+import com.upgrad.myntra.service.common.Workload;
+import com.upgrad.myntra.service.common.WorkloadContext;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.query.Query;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Forward-only cursor over the results of a named query, read fetch-size rows at a time.
+ *
+ * The cursor owns its entity manager and read-only transaction instead of joining the thread-bound Spring
+ * transaction, so it stays usable while a reactive stream pulls rows from whichever scheduler thread serves the
+ * current request for more. Calls are synchronized, so a cancel racing with a pull closes the cursor only between
+ * rows, never while a row is being mapped. The persistence context is cleared once per fetch, so a long stream holds at most one fetch of entities.
+ */
+class CatalogScroll<E> implements AutoCloseable {
+
+    private final EntityManager entityManager;
+
+    private final ScrollableResults results;
+
+    private final Class<E> type;
+
+    private final int fetchSize;
+
+    private int pulled;
+
+    private boolean closed;
+
+    CatalogScroll(EntityManagerFactory entityManagerFactory, Class<E> type, String queryName, Map<String, Object> parameters, int fetchSize) {
+        this.type = type;
+        this.fetchSize = fetchSize;
+        Workload previous = WorkloadContext.enter(Workload.CATALOG);
+        EntityManager opened = entityManagerFactory.createEntityManager();
+        try {
+            opened.getTransaction().begin();
+            opened.unwrap(Session.class).setDefaultReadOnly(true);
+            Query<?> query = opened.createNamedQuery(queryName, type).unwrap(Query.class);
+            for (Map.Entry<String, Object> parameter : parameters.entrySet()) {
+                query.setParameter(parameter.getKey(), parameter.getValue());
+            }
+            this.results = query.setCacheable(false).setFetchSize(fetchSize).setReadOnly(true).scroll(ScrollMode.FORWARD_ONLY);
+            this.entityManager = opened;
+        } catch (RuntimeException e) {
+            release(opened);
+            throw e;
+        } finally {
+            WorkloadContext.restore(previous);
+        }
+    }
+
+    /**
+     * Maps the next row while the cursor still holds it, so lazy associations can be read by the mapper.
+     *
+     * @return the mapped row, or null once the results are exhausted or the cursor is closed.
+     */
+    synchronized <T> T next(Function<? super E, T> mapper) {
+        if (closed || !results.next()) {
+            return null;
+        }
+        if (pulled > 0 && pulled % fetchSize == 0) {
+            entityManager.clear();
+        }
+        pulled++;
+        return mapper.apply(type.cast(results.get(0)));
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            results.close();
+        } finally {
+            release(entityManager);
+        }
+    }
+
+    private static void release(EntityManager entityManager) {
+        try {
+            if (entityManager.getTransaction().isActive()) {
+                entityManager.getTransaction().rollback();
+            }
+        } finally {
+            entityManager.close();
+        }
+    }
+}
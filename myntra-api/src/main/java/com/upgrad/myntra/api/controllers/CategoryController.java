@@ -1,15 +1,20 @@
 package com.upgrad.myntra.api.controllers;
 
 
+import com.upgrad.myntra.api.config.CatalogResponseCache;
+import com.upgrad.myntra.service.business.CatalogVersions;
 import com.upgrad.myntra.service.business.CategoryService;
+import com.upgrad.myntra.service.business.ItemService;
 import com.upgrad.myntra.service.entity.CategoryEntity;
 import com.upgrad.myntra.service.entity.ItemEntity;
 import com.upgrad.myntra.service.exception.CategoryNotFoundException;
+import com.upgrad.myntra.service.exception.ItemSearchException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import com.upgrad.myntra.api.model.*;
 
 import java.util.ArrayList;
@@ -18,11 +23,21 @@ import java.util.UUID;
 import java.util.stream.Collectors;
 
 @RequestMapping("/category")
+@RestController
 public class CategoryController {
 
     @Autowired
     private CategoryService categoryService;
 
+    @Autowired
+    private CatalogVersions catalogVersions;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private CatalogResponseMapper catalogResponseMapper;
+
     /**
      * A controller method to get all address from the database.
      *
@@ -31,32 +46,72 @@ public class CategoryController {
      * @throws //CategoryNotFoundException
      */
     @GetMapping("/{categoryId}")
-    public ResponseEntity<CategoryDetailsResponse>getCategoryById(@PathVariable("categoryId") String categoryId)throws Exception{
+    public ResponseEntity<CategoryDetailsResponse>getCategoryById(@PathVariable("categoryId") UUID categoryId)throws Exception{
         CategoryEntity categoryEntity = categoryService.getCategoryById(categoryId);
         List<ItemEntity> itemEntityList= categoryEntity.getItems();
         final List<ItemList> itemLists = itemEntityList.stream()
-                .map(developer -> new ItemList().id(UUID.fromString(developer.getUuid())).itemName(developer.getItemName()).price(developer.getPrice())).collect(Collectors.toList());
+                .map(developer -> new ItemList().id(developer.getUuid()).itemName(developer.getItemName()).price(developer.getPrice())).collect(Collectors.toList());
 
-        CategoryDetailsResponse cl=new CategoryDetailsResponse().id(UUID.fromString(categoryEntity.getUuid())).categoryName(categoryEntity.getCategoryName()).itemList(itemLists);
+        CategoryDetailsResponse cl=new CategoryDetailsResponse().id(categoryEntity.getUuid()).categoryName(categoryEntity.getCategoryName()).itemList(itemLists);
         return new ResponseEntity<CategoryDetailsResponse>(cl, HttpStatus.OK);
     }
 
+    /**
+     * A controller method to get a page of the items of a category within a price range, sorted by price.
+     *
+     * @param categoryId - The uuid of the category whose items are listed.
+     * @param minPrice - Lowest price of the listed items, unbounded when absent.
+     * @param maxPrice - Highest price of the listed items, unbounded when absent.
+     * @param sort - asc or desc, asc when absent.
+     * @param cursor - next_cursor of the previous page, absent for the first page.
+     * @param limit - Number of items in the page.
+     * @return - ResponseEntity<ItemPageResponse> type object along with Http status OK.
+     * @throws CategoryNotFoundException
+     * @throws ItemSearchException
+     */
+    @GetMapping("/{categoryId}/items")
+    public ResponseEntity<ItemPageResponse> getItemsByCategoryAndPrice(@PathVariable("categoryId") UUID categoryId,
+                                                                       @RequestParam(name = "min_price", required = false) Integer minPrice,
+                                                                       @RequestParam(name = "max_price", required = false) Integer maxPrice,
+                                                                       @RequestParam(name = "sort", required = false) String sort,
+                                                                       @RequestParam(name = "cursor", required = false) String cursor,
+                                                                       @RequestParam(name = "limit", required = false) Integer limit) throws CategoryNotFoundException, ItemSearchException {
+        CategoryEntity categoryEntity = categoryService.getCategoryById(categoryId);
+        List<ItemEntity> items = itemService.getItemsByCategoryAndPrice(categoryEntity.getId(), minPrice, maxPrice, sort, cursor, limit);
+        return new ResponseEntity<ItemPageResponse>(toItemPageResponse(items, limit), HttpStatus.OK);
+    }
+
     /**
      * A controller method to get all categories from the database.
+     * A request whose validators match the current category list version is answered with 304 Not Modified
+     * without querying the database.
      *
      * @return - ResponseEntity<CategoriesListResponse> type object along with Http status OK.
      */
     @GetMapping("/")
-    public ResponseEntity<CategoriesListResponse>getAllCategoriesOrderedByName()throws Exception {
+    public ResponseEntity<CategoriesListResponse>getAllCategoriesOrderedByName(WebRequest webRequest)throws Exception {
+        // The version is read before the query, so a change committed meanwhile can only make the ETag older.
+        CatalogVersions.Stamp stamp = catalogVersions.categoryListStamp();
+        if (webRequest.checkNotModified(stamp.getETag(), stamp.getLastModified()))
+            return null;
         List<CategoryEntity> list = categoryService.getAllCategoriesOrderedByName();
         List<CategoryListResponse> categoryListResponses = new ArrayList<CategoryListResponse>();
         for(int i=0;i<list.size();i++){
-            CategoryListResponse categoryListResponse=new CategoryListResponse().id(UUID.fromString(list.get(i).getUuid())).categoryName(list.get(i).getCategoryName());
+            CategoryListResponse categoryListResponse=new CategoryListResponse().id(list.get(i).getUuid()).categoryName(list.get(i).getCategoryName());
             categoryListResponses.add(categoryListResponse);
         }
 
         final CategoriesListResponse categoryLists = new CategoriesListResponse().categories(categoryListResponses);
+        CatalogResponseCache.dependsOn(webRequest, CatalogResponseCache.CATEGORY_LIST);
         return new ResponseEntity<CategoriesListResponse>(categoryLists, HttpStatus.OK);
     }
 
+    private ItemPageResponse toItemPageResponse(List<ItemEntity> items, Integer limit) {
+        List<ItemList> itemLists = new ArrayList<ItemList>();
+        for (ItemEntity itemEntity : items) {
+            itemLists.add(catalogResponseMapper.toItemList(itemEntity));
+        }
+        return new ItemPageResponse().items(itemLists).nextCursor(itemService.getNextPriceCursor(items, limit));
+    }
+
 }
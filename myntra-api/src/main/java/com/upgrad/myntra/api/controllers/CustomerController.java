@@ -10,22 +10,42 @@ import com.upgrad.myntra.service.exception.AuthorizationFailedException;
 import com.upgrad.myntra.service.exception.SignUpRestrictedException;
 import com.upgrad.myntra.service.exception.UpdateCustomerException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 import com.upgrad.myntra.api.model.*;
 
+import javax.servlet.http.HttpServletRequest;
+
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Base64;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
+@RestController
 @RequestMapping("/customer")
 public class CustomerController {
 	@Autowired private CustomerService customerService;
 
+	/**
+	 * Addresses of the load balancers and proxies in front of the application. Only their X-Forwarded-For headers
+	 * are believed; when none are configured failed logins are counted per account only, since the remote address
+	 * behind a load balancer is the same for every client.
+	 */
+	private Set<String> trustedProxies = new HashSet<>();
+
+	@Value("${myntra.login.throttle.trusted-proxies:}")
+	public void setTrustedProxies(final String trustedProxies) {
+		this.trustedProxies = new HashSet<>(Arrays.asList(StringUtils.tokenizeToStringArray(trustedProxies, ",")));
+	}
+
 	/**
 	 * A controller method for customer signup.
 	 *
@@ -51,17 +71,18 @@ public class CustomerController {
 	 * A controller method for customer authentication.
 	 *
 	 * @param //authorization - A field in the request header which contains the customer credentials as Basic authentication.
+	 * @param request - The servlet request, used for the client address of the login attempt when it is known.
 	 * @return - ResponseEntity<LoginResponse> type object along with Http status OK.
 	 * @throws //AuthenticationFailedException
 	 */
 	@PostMapping("/login")
-	public ResponseEntity<LoginResponse>login(@RequestHeader("authorization") final String authentication) throws AuthenticationFailedException {
+	public ResponseEntity<LoginResponse>login(@RequestHeader("authorization") final String authentication, final HttpServletRequest request) throws AuthenticationFailedException {
 		byte[] decoded= Base64.getDecoder().decode(authentication.split("Basic ")[1]);
 		String decodedText=new String(decoded);
 		if(decodedText.indexOf(":")==-1)
 			throw new AuthenticationFailedException("ATH-003","Incorrect format of decoded customer name and password");
 		String[] decodedArray=decodedText.split(":");
-		CustomerAuthEntity userAuthTokenEntity=customerService.authenticate(decodedArray[0],decodedArray[1]);
+		CustomerAuthEntity userAuthTokenEntity=customerService.authenticate(decodedArray[0],decodedArray[1],clientAddress(request));
 
 
 		CustomerEntity user=userAuthTokenEntity.getCustomer();
@@ -74,6 +95,30 @@ public class CustomerController {
 
 	}
 
+	/**
+	 * Returns the address of the client that sent the request: the remote address of a direct connection, or the
+	 * nearest untrusted hop of X-Forwarded-For for a request relayed by a trusted proxy. Returns null when no
+	 * proxies are configured or the header names no untrusted hop.
+	 */
+	private String clientAddress(final HttpServletRequest request) {
+		if (trustedProxies.isEmpty())
+			return null;
+		String remoteAddress = request.getRemoteAddr();
+		if (!trustedProxies.contains(remoteAddress))
+			return remoteAddress;
+		String forwardedFor = request.getHeader("X-Forwarded-For");
+		if (forwardedFor == null)
+			return null;
+		// Hops are appended by each proxy, so the entries left of the last untrusted one are the client's own claims.
+		String[] hops = forwardedFor.split(",");
+		for (int i = hops.length - 1; i >= 0; i--) {
+			String hop = hops[i].trim();
+			if (!hop.isEmpty() && !trustedProxies.contains(hop))
+				return hop;
+		}
+		return null;
+	}
+
 	/**
 	 * A controller method for customer logout.
 	 *
@@ -0,0 +1,212 @@
+package com.upgrad.myntra.api.controllers;
+
+import com.upgrad.myntra.api.config.ConnectionPoolLimits;
+import com.upgrad.myntra.service.business.BrandService;
+import com.upgrad.myntra.service.business.CategoryService;
+import com.upgrad.myntra.service.business.ItemService;
+import com.upgrad.myntra.service.common.Workload;
+import com.upgrad.myntra.service.entity.BrandEntity;
+import com.upgrad.myntra.service.entity.CategoryEntity;
+import com.upgrad.myntra.service.entity.ItemEntity;
+import com.upgrad.myntra.service.exception.BrandNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import com.upgrad.myntra.api.model.*;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.util.function.Tuples;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+
+/**
+ * Non-blocking variants of the catalog read endpoints under "/reactive". The servlet thread returns as soon as the
+ * publisher is built and the JPA calls run on the bounded catalog scheduler. List endpoints read their query through
+ * a database cursor and pull one row per element requested downstream, so with "application/stream+json" a slow
+ * client holds back the reads instead of the whole list being loaded up front. The MVC endpoints remain the default.
+ */
+@RequestMapping("/reactive")
+@RestController
+public class ReactiveCatalogController {
+
+	@Autowired private BrandService brandService;
+
+	@Autowired private ItemService itemService;
+
+	@Autowired private CategoryService categoryService;
+
+	@Autowired private CatalogResponseMapper catalogResponseMapper;
+
+	@Autowired private ConnectionPoolLimits connectionPoolLimits;
+
+	@Autowired private PlatformTransactionManager transactionManager;
+
+	@Autowired @Qualifier("catalogScheduler") private Scheduler catalogScheduler;
+
+	@Autowired private EntityManagerFactory entityManagerFactory;
+
+	@Value("${myntra.catalog.reactive.fetch-size:100}") private int fetchSize;
+
+	@Value("${myntra.catalog.reactive.cursor-share:0.25}") private double cursorShare;
+
+	private TransactionTemplate readOnlyTransaction;
+
+	private Semaphore cursors;
+
+	@PostConstruct
+	public void init() {
+		readOnlyTransaction = new TransactionTemplate(transactionManager);
+		readOnlyTransaction.setReadOnly(true);
+		cursors = new Semaphore(connectionPoolLimits.share(Workload.CATALOG, cursorShare));
+	}
+
+	/**
+	 * A controller method to get a Brand details from the database without blocking the request thread.
+	 *
+	 * @param brandId - The uuid of the Brand whose details has to be fetched from the database.
+	 * @return - Mono<BrandDetailsResponse> completing with the brand, its categories and their items.
+	 */
+	@GetMapping(path = "/brand/{brandId}", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+	public Mono<BrandDetailsResponse> brandById(@PathVariable("brandId") UUID brandId) {
+		return blocking(() -> {
+			BrandEntity brandEntity = brandService.brandByUUID(brandId);
+			if (brandEntity == null)
+				throw new BrandNotFoundException("RNF-001", "No brand by this id");
+			return Tuples.of(brandEntity.getId(), catalogResponseMapper.toBrandDetails(brandEntity));
+		}).flatMap(brand -> {
+			Integer brandKey = brand.getT1();
+			BrandDetailsResponse details = brand.getT2();
+			return blocking(() -> categoryService.getCategoriesByBrand(brandKey))
+					.flatMapMany(Flux::fromIterable)
+					.flatMapSequential(category -> blocking(() -> toCategoryList(brandKey, category)),
+							connectionPoolLimits.share(Workload.CATALOG, 0.5))
+					.collectList()
+					.map(details::categories);
+		});
+	}
+
+	/**
+	 * A controller method to stream Brands matching a name from the database.
+	 *
+	 * @param brandName - The name of the Brand whose details has to be fetched from the database.
+	 * @return - Flux<BrandList> emitting one brand at a time.
+	 */
+	@GetMapping(path = "/brand/name/{brandName}", produces = {MediaType.APPLICATION_STREAM_JSON_VALUE, MediaType.APPLICATION_JSON_UTF8_VALUE})
+	public Flux<BrandList> brandsByName(@PathVariable("brandName") String brandName) {
+		return scroll(BrandEntity.class, "brandsByName", Collections.singletonMap("brandName", brandName), catalogResponseMapper::toBrandList);
+	}
+
+	/**
+	 * A controller method to stream all Brands of a category from the database.
+	 *
+	 * @param categoryId - The uuid of the category under which the Brand list has to be fetched from the database.
+	 * @return - Flux<BrandList> emitting one brand at a time.
+	 */
+	@GetMapping(path = "/brand/category/{categoryId}", produces = {MediaType.APPLICATION_STREAM_JSON_VALUE, MediaType.APPLICATION_JSON_UTF8_VALUE})
+	public Flux<BrandList> brandsByCategory(@PathVariable("categoryId") UUID categoryId) {
+		// An existing category without brands is an empty stream, so the category is looked up first.
+		return blocking(() -> categoryService.getCategoryById(categoryId))
+				.thenMany(scroll(BrandEntity.class, "brandsByCategory", Collections.singletonMap("uuid", categoryId), catalogResponseMapper::toBrandList));
+	}
+
+	/**
+	 * A controller method to stream all categories ordered by name from the database.
+	 *
+	 * @return - Flux<CategoryListResponse> emitting one category at a time.
+	 */
+	@GetMapping(path = "/category/", produces = {MediaType.APPLICATION_STREAM_JSON_VALUE, MediaType.APPLICATION_JSON_UTF8_VALUE})
+	public Flux<CategoryListResponse> allCategories() {
+		return scroll(CategoryEntity.class, "getAllCategoriesOrderedByName", Collections.emptyMap(), catalogResponseMapper::toCategoryListResponse);
+	}
+
+	/**
+	 * A controller method to stream the items of a category from the database.
+	 *
+	 * @param categoryId - The uuid of the category whose items are asked from the database.
+	 * @return - Flux<ItemList> emitting one item at a time.
+	 */
+	@GetMapping(path = "/category/{categoryId}", produces = {MediaType.APPLICATION_STREAM_JSON_VALUE, MediaType.APPLICATION_JSON_UTF8_VALUE})
+	public Flux<ItemList> categoryItems(@PathVariable("categoryId") UUID categoryId) {
+		// The category is looked up first, so an unknown id is an error and not an empty stream.
+		return blocking(() -> categoryService.getCategoryById(categoryId))
+				.thenMany(scroll(ItemEntity.class, "itemsByCategoryUuid", Collections.singletonMap("categoryId", categoryId), catalogResponseMapper::toItemList));
+	}
+
+	private CategoryList toCategoryList(Integer brandKey, CategoryEntity category) {
+		List<ItemList> items = new ArrayList<>();
+		for (ItemEntity itemEntity : itemService.getItemsByCategoryAndBrand(brandKey, category.getId()))
+			items.add(catalogResponseMapper.toItemList(itemEntity));
+		return catalogResponseMapper.toCategoryList(category, items);
+	}
+
+	/**
+	 * Runs a blocking call on the catalog scheduler inside a read-only transaction, so lazy associations can be
+	 * mapped before the entities leave it. Checked exceptions surface unchanged as the error signal.
+	 */
+	private <T> Mono<T> blocking(Callable<T> call) {
+		return Mono.fromCallable(() -> readOnlyTransaction.execute(status -> {
+			try {
+				return call.call();
+			} catch (Exception e) {
+				throw Exceptions.propagate(e);
+			}
+		})).onErrorMap(Exceptions::unwrap).subscribeOn(catalogScheduler);
+	}
+
+	/**
+	 * Streams the results of a named query, one row per downstream request. The cursor is opened on subscription
+	 * and closed on completion, error or cancellation; every read runs on the catalog scheduler.
+	 *
+	 * An open cursor holds a catalog connection for as long as its client takes to read, so only a share of the
+	 * catalog pool may be held by cursors at once. A stream that finds no free permit fails with 503 instead of
+	 * waiting for one.
+	 */
+	private <E, T> Flux<T> scroll(Class<E> type, String queryName, Map<String, Object> parameters, Function<? super E, T> mapper) {
+		return Flux.using(() -> openCursor(type, queryName, parameters),
+				cursor -> Flux.<T>generate(sink -> {
+					T next = cursor.next(mapper);
+					if (next == null)
+						sink.complete();
+					else
+						sink.next(next);
+				}),
+				this::closeCursor)
+				.subscribeOn(catalogScheduler);
+	}
+
+	private <E> CatalogScroll<E> openCursor(Class<E> type, String queryName, Map<String, Object> parameters) {
+		if (!cursors.tryAcquire())
+			throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many open catalog streams, retry shortly");
+		try {
+			return new CatalogScroll<>(entityManagerFactory, type, queryName, parameters, fetchSize);
+		} catch (RuntimeException e) {
+			cursors.release();
+			throw e;
+		}
+	}
+
+	private void closeCursor(CatalogScroll<?> cursor) {
+		try {
+			cursor.close();
+		} finally {
+			cursors.release();
+		}
+	}
+}
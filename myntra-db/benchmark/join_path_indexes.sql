@@ -0,0 +1,141 @@
+-- Before/after plans for V001__join_path_indexes.sql at catalog scale.
+--
+-- Builds a copy of the catalog and address tables in a scratch schema "bench", fills it with generate_series data
+-- (2,000 brands, 500 categories, 1,000,000 items, 200,000 customers with 3 addresses each), prints
+-- EXPLAIN (ANALYZE, BUFFERS) for each named-query shape, applies the migration's indexes and prints the plans again.
+-- The public schema is not touched and the scratch schema is dropped at the end.
+--
+--   psql -h localhost -U postgres -d myntradb -f myntra-db/benchmark/join_path_indexes.sql > join_path_indexes.out
+--
+-- Run it after the migrations; the uuid columns have the PostgreSQL uuid type from V003 on.
+--
+-- Expected: sequential scans of BRANDS_ITEM, CATEGORY_ITEM, BRANDS_CATEGORY and CUSTOMER_ADDRESS before, index
+-- (mostly index-only) scans after.
+
+\set ON_ERROR_STOP on
+\timing on
+
+DROP SCHEMA IF EXISTS bench CASCADE;
+CREATE SCHEMA bench;
+SET search_path = bench;
+
+CREATE TABLE state (LIKE public.state INCLUDING ALL);
+CREATE TABLE address (LIKE public.address INCLUDING ALL);
+CREATE TABLE customer (LIKE public.customer INCLUDING ALL);
+CREATE TABLE customer_address (LIKE public.customer_address INCLUDING ALL);
+CREATE TABLE customer_auth (LIKE public.customer_auth INCLUDING ALL);
+CREATE TABLE category (LIKE public.category INCLUDING ALL);
+CREATE TABLE item (LIKE public.item INCLUDING ALL);
+CREATE TABLE brands (LIKE public.brands INCLUDING ALL);
+CREATE TABLE category_item (LIKE public.category_item INCLUDING ALL);
+CREATE TABLE brands_item (LIKE public.brands_item INCLUDING ALL);
+CREATE TABLE brands_category (LIKE public.brands_category INCLUDING ALL);
+
+-- LIKE copies the SERIAL defaults, which still point at the public sequences.
+DO $$
+DECLARE t text;
+BEGIN
+  FOREACH t IN ARRAY ARRAY['customer_address', 'customer_auth', 'category_item', 'brands_item', 'brands_category'] LOOP
+    EXECUTE format('CREATE SEQUENCE bench.%I', t || '_id_seq');
+    EXECUTE format('ALTER TABLE bench.%I ALTER COLUMN id SET DEFAULT nextval(%L)', t, 'bench.' || t || '_id_seq');
+  END LOOP;
+END $$;
+
+INSERT INTO state (id, uuid, state_name)
+SELECT g, md5('state' || g)::uuid, 'State ' || g FROM generate_series(1, 36) g;
+
+INSERT INTO address (id, uuid, flat_buil_number, locality, city, pincode, state_id, deleted)
+SELECT g, md5('address' || g)::uuid, 'Flat ' || g, 'Locality ' || (g % 997), 'City ' || (g % 101),
+       (110000 + g % 800000)::text, 1 + g % 36, g % 50 = 0
+FROM generate_series(1, 602000) g;
+
+INSERT INTO customer (id, uuid, firstname, contact_number, password, salt)
+SELECT g, md5('customer' || g), 'Customer' || g, (9000000000 + g)::text, 'x', 'x' FROM generate_series(1, 200000) g;
+
+INSERT INTO customer_address (customer_id, address_id)
+SELECT 1 + (g - 2001) / 3, g FROM generate_series(2001, 602000) g;
+
+INSERT INTO customer_auth (uuid, customer_id, access_token, login_at, expires_at)
+SELECT md5('auth' || g), 1 + g % 200000, md5('token' || g) || md5('token2' || g), now(), now() + interval '8 hours'
+FROM generate_series(1, 500000) g;
+
+INSERT INTO category (id, uuid, category_name)
+SELECT g, md5('category' || g)::uuid, 'Category ' || g FROM generate_series(1, 500) g;
+
+INSERT INTO brands (id, uuid, brand_name, customer_rating, number_of_customers_rated, address_id)
+SELECT g, md5('brand' || g)::uuid, 'Brand ' || g, (g % 50) / 10.0, g % 1000, g FROM generate_series(1, 2000) g;
+
+INSERT INTO item (id, uuid, item_name, price)
+SELECT g, md5('item' || g)::uuid, 'Item ' || g, 100 + g % 9900 FROM generate_series(1, 1000000) g;
+
+-- Every item belongs to one brand and two categories; every brand sells in 25 categories.
+INSERT INTO brands_item (item_id, brand_id) SELECT g, 1 + g % 2000 FROM generate_series(1, 1000000) g;
+INSERT INTO category_item (item_id, category_id) SELECT g, 1 + (g % 2000 * 25 + g % 25) % 500 FROM generate_series(1, 1000000) g;
+INSERT INTO category_item (item_id, category_id) SELECT g, 1 + (g % 2000 * 25 + (g + 7) % 25) % 500 FROM generate_series(1, 1000000) g;
+INSERT INTO brands_category (brand_id, category_id)
+SELECT b, 1 + (b * 25 + c) % 500 FROM generate_series(0, 1999) b, generate_series(0, 24) c;
+
+ANALYZE;
+
+-- The SQL Hibernate generates for each named query, with literals for the parameters.
+PREPARE items_by_category_and_brand AS
+SELECT i.* FROM item i
+  JOIN brands_item bi ON bi.item_id = i.id
+  JOIN category_item ci ON ci.item_id = i.id
+WHERE bi.brand_id = 1000 AND ci.category_id = 1 + (999 * 25 + 3) % 500 ORDER BY i.item_name;
+
+PREPARE brands_by_category AS
+SELECT DISTINCT b.* FROM brands b
+  JOIN brands_category bc ON bc.brand_id = b.id JOIN category c ON c.id = bc.category_id
+WHERE c.uuid = md5('category42')::uuid ORDER BY b.brand_name;
+
+PREPARE categories_by_brand AS
+SELECT c.* FROM category c
+  JOIN brands_category bc ON bc.category_id = c.id
+WHERE bc.brand_id = 1000 ORDER BY c.category_name;
+
+PREPARE all_address AS
+SELECT a.* FROM customer_address ca JOIN address a ON a.id = ca.address_id
+WHERE ca.customer_id = 123456 AND a.deleted = false ORDER BY a.id DESC;
+
+PREPARE owner_by_address AS
+SELECT ca.* FROM customer_address ca JOIN address a ON a.id = ca.address_id WHERE a.uuid = md5('address424242')::uuid;
+
+PREPARE auth_by_token AS
+SELECT * FROM customer_auth WHERE access_token = md5('token4242') || md5('token24242');
+
+\echo '==================== BEFORE ===================='
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE items_by_category_and_brand;
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE brands_by_category;
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE categories_by_brand;
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE all_address;
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE owner_by_address;
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE auth_by_token;
+
+-- The migration creates its indexes CONCURRENTLY in the public schema; here the same definitions are built on the
+-- scratch copies.
+CREATE INDEX brands_item_brand_item_idx ON brands_item (brand_id, item_id);
+CREATE INDEX brands_item_item_brand_idx ON brands_item (item_id, brand_id);
+CREATE INDEX category_item_category_item_idx ON category_item (category_id, item_id);
+CREATE INDEX category_item_item_category_idx ON category_item (item_id, category_id);
+CREATE INDEX brands_category_category_brand_idx ON brands_category (category_id, brand_id);
+CREATE INDEX brands_category_brand_category_idx ON brands_category (brand_id, category_id);
+CREATE INDEX customer_address_customer_address_idx ON customer_address (customer_id, address_id);
+CREATE INDEX customer_address_address_customer_idx ON customer_address (address_id, customer_id);
+CREATE INDEX address_deleted_idx ON address (id) WHERE deleted;
+CREATE INDEX customer_auth_access_token_idx ON customer_auth (access_token);
+CREATE INDEX customer_auth_customer_idx ON customer_auth (customer_id);
+CREATE INDEX brands_customer_rating_idx ON brands (customer_rating DESC);
+CREATE INDEX category_category_name_idx ON category (category_name);
+VACUUM ANALYZE;
+
+\echo '==================== AFTER ===================='
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE items_by_category_and_brand;
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE brands_by_category;
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE categories_by_brand;
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE all_address;
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE owner_by_address;
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE auth_by_token;
+
+RESET search_path;
+DROP SCHEMA bench CASCADE;
@@ -0,0 +1,31 @@
+package com.upgrad.myntra.db.migration;
+
+/**
+ * A row of the "schema_migration" table.
+ */
+public final class AppliedMigration {
+
+    private final int version;
+
+    private final String description;
+
+    private final long checksum;
+
+    AppliedMigration(final int version, final String description, final long checksum) {
+        this.version = version;
+        this.description = description;
+        this.checksum = checksum;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public long getChecksum() {
+        return checksum;
+    }
+}
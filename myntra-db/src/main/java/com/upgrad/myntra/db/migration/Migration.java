@@ -0,0 +1,88 @@
+package com.upgrad.myntra.db.migration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * One versioned schema change, loaded from "sql/migration/V&lt;version&gt;__&lt;description&gt;.sql".
+ *
+ * A migration runs in a single transaction unless it contains a statement PostgreSQL refuses to run inside one
+ * (CREATE/DROP INDEX CONCURRENTLY, ALTER TYPE ... ADD VALUE, VACUUM) or carries the line "-- migration:no-transaction".
+ * Such migrations run statement by statement with autocommit and should be written to be re-runnable, e.g. with
+ * IF NOT EXISTS.
+ */
+public final class Migration {
+
+    private static final Pattern NO_TRANSACTION_MARKER = Pattern.compile("(?im)^\\s*--\\s*migration:no-transaction\\s*$");
+
+    private static final Pattern NON_TRANSACTIONAL_STATEMENT = Pattern.compile(
+            "(?is)\\bCONCURRENTLY\\b|^ALTER\\s+TYPE\\b.*\\bADD\\s+VALUE\\b|^VACUUM\\b");
+
+    private static final Pattern CONCURRENT_INDEX = Pattern.compile(
+            "(?is)\\bCREATE\\s+(?:UNIQUE\\s+)?INDEX\\s+CONCURRENTLY\\s+(?:IF\\s+NOT\\s+EXISTS\\s+)?([\\w.\"]+)");
+
+    private final int version;
+
+    private final String description;
+
+    private final String script;
+
+    private final long checksum;
+
+    Migration(final int version, final String description, final String script, final long checksum) {
+        this.version = version;
+        this.description = description;
+        this.script = script;
+        this.checksum = checksum;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public long getChecksum() {
+        return checksum;
+    }
+
+    public boolean isTransactional() {
+        if (NO_TRANSACTION_MARKER.matcher(script).find()) {
+            return false;
+        }
+        for (String statement : getStatements()) {
+            if (NON_TRANSACTIONAL_STATEMENT.matcher(statement).find()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the unqualified names of the indexes the migration builds with CREATE INDEX CONCURRENTLY.
+     */
+    List<String> getConcurrentIndexNames() {
+        List<String> names = new ArrayList<>();
+        for (String statement : getStatements()) {
+            Matcher matcher = CONCURRENT_INDEX.matcher(statement);
+            if (matcher.find()) {
+                String name = matcher.group(1).replace("\"", "");
+                names.add(name.substring(name.lastIndexOf('.') + 1));
+            }
+        }
+        return names;
+    }
+
+    List<String> getStatements() {
+        return SqlScriptSplitter.split(script);
+    }
+
+    @Override
+    public String toString() {
+        return "V" + version + " " + description;
+    }
+}
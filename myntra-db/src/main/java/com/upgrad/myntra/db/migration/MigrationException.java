@@ -0,0 +1,17 @@
+package com.upgrad.myntra.db.migration;
+
+/**
+ * Raised when the migrations cannot be loaded or applied, or when the database schema does not match them.
+ */
+public class MigrationException extends RuntimeException {
+
+    private static final long serialVersionUID = 6071539264829461782L;
+
+    public MigrationException(final String message) {
+        super(message);
+    }
+
+    public MigrationException(final String message, final Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,67 @@
+package com.upgrad.myntra.db.migration;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Loads the migrations packaged under "sql/migration" in version order.
+ */
+public final class MigrationLoader {
+
+    private static final String LOCATION = "classpath*:sql/migration/V*__*.sql";
+
+    private static final Pattern FILE_NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+
+    private MigrationLoader() {
+    }
+
+    public static List<Migration> load() {
+        return load(MigrationLoader.class.getClassLoader());
+    }
+
+    public static List<Migration> load(final ClassLoader classLoader) {
+        List<Migration> migrations = new ArrayList<>();
+        try {
+            for (Resource resource : new PathMatchingResourcePatternResolver(classLoader).getResources(LOCATION)) {
+                Matcher matcher = FILE_NAME.matcher(resource.getFilename());
+                if (!matcher.matches()) {
+                    throw new MigrationException("Migration file name does not match V<version>__<description>.sql: " + resource.getFilename());
+                }
+                String script;
+                try (InputStream in = resource.getInputStream()) {
+                    script = StreamUtils.copyToString(in, StandardCharsets.UTF_8);
+                }
+                migrations.add(new Migration(Integer.parseInt(matcher.group(1)), matcher.group(2).replace('_', ' '), script, checksum(script)));
+            }
+        } catch (IOException e) {
+            throw new MigrationException("Could not read the migrations from " + LOCATION, e);
+        }
+        migrations.sort(Comparator.comparingInt(Migration::getVersion));
+        for (int i = 1; i < migrations.size(); i++) {
+            if (migrations.get(i).getVersion() == migrations.get(i - 1).getVersion()) {
+                throw new MigrationException("Two migrations share version " + migrations.get(i).getVersion());
+            }
+        }
+        return migrations;
+    }
+
+    /**
+     * CRC32 of the script with line endings normalised, so a checkout with CRLF endings has the same checksum.
+     */
+    static long checksum(final String script) {
+        CRC32 crc = new CRC32();
+        crc.update(script.replace("\r\n", "\n").getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,266 @@
+package com.upgrad.myntra.db.migration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Applies the pending migrations to an existing database and records each one, with its checksum, in the
+ * "schema_migration" table.
+ *
+ * The database must have been created from the baseline "sql/tables.sql" (the "setup" profile); the first run
+ * records that baseline as version 0. Applied migrations are never re-run: editing one after it has been applied
+ * is reported as a checksum mismatch. Runners on several hosts serialise on a PostgreSQL advisory lock.
+ *
+ * Usage: MigrationRunner &lt;migrate|validate|info&gt; &lt;jdbc-url&gt; &lt;username&gt; &lt;password&gt;
+ */
+public class MigrationRunner {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MigrationRunner.class);
+
+    static final String TABLE = "schema_migration";
+
+    private static final long ADVISORY_LOCK_KEY = 0x6d796e747261L;
+
+    private static final String CREATE_TABLE_SQL = "CREATE TABLE IF NOT EXISTS " + TABLE + " (version INTEGER PRIMARY KEY, "
+            + "description VARCHAR(200) NOT NULL, checksum BIGINT NOT NULL, installed_at TIMESTAMP NOT NULL DEFAULT now(), "
+            + "execution_ms INTEGER NOT NULL)";
+
+    private static final String INSERT_SQL = "INSERT INTO " + TABLE + " (version, description, checksum, execution_ms) VALUES (?, ?, ?, ?)";
+
+    private static final String SELECT_SQL = "SELECT version, description, checksum FROM " + TABLE + " ORDER BY version";
+
+    // Only the indexes of the migration in the current schema: a build still running in another session, or an
+    // invalid index left in another schema, is none of this migration's business.
+    private static final String INVALID_INDEXES_SQL = "SELECT string_agg(i.indexrelid::regclass::text, ', ') FROM pg_index i "
+            + "JOIN pg_class c ON c.oid = i.indexrelid JOIN pg_namespace n ON n.oid = c.relnamespace "
+            + "WHERE NOT i.indisvalid AND n.nspname = current_schema() AND c.relname = ANY (?)";
+
+    private final DataSource dataSource;
+
+    private final List<Migration> migrations;
+
+    public MigrationRunner(final DataSource dataSource) {
+        this(dataSource, MigrationLoader.load());
+    }
+
+    public MigrationRunner(final DataSource dataSource, final List<Migration> migrations) {
+        this.dataSource = dataSource;
+        this.migrations = migrations;
+    }
+
+    /**
+     * @return the version of the newest packaged migration, 0 when there is none.
+     */
+    public int getLatestVersion() {
+        return migrations.isEmpty() ? 0 : migrations.get(migrations.size() - 1).getVersion();
+    }
+
+    /**
+     * Applies every packaged migration that the database does not have yet.
+     *
+     * @return the migrations that were applied.
+     */
+    public List<Migration> migrate() {
+        List<Migration> applied = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SELECT pg_advisory_lock(" + ADVISORY_LOCK_KEY + ")");
+            }
+            try {
+                ensureTable(connection);
+                Map<Integer, AppliedMigration> installed = verifyChecksums(connection);
+                for (Migration migration : migrations) {
+                    if (!installed.containsKey(migration.getVersion())) {
+                        apply(connection, migration);
+                        applied.add(migration);
+                    }
+                }
+            } finally {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("SELECT pg_advisory_unlock(" + ADVISORY_LOCK_KEY + ")");
+                }
+            }
+        } catch (SQLException e) {
+            throw new MigrationException("Schema migration failed", e);
+        }
+        return applied;
+    }
+
+    /**
+     * Checks that every packaged migration has been applied unchanged. Versions newer than the packaged ones are
+     * accepted, so an older build keeps running while a newer one migrates the schema.
+     *
+     * @throws MigrationException when a migration is missing or its checksum differs.
+     */
+    public void validate() {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!tableExists(connection, TABLE)) {
+                throw new MigrationException("Table " + TABLE + " not found; run the migrations (mvn -pl myntra-db -Pmigrate process-classes)");
+            }
+            Map<Integer, AppliedMigration> installed = verifyChecksums(connection);
+            List<String> pending = new ArrayList<>();
+            for (Migration migration : migrations) {
+                if (!installed.containsKey(migration.getVersion())) {
+                    pending.add(migration.toString());
+                }
+            }
+            if (!pending.isEmpty()) {
+                throw new MigrationException("Database schema is missing migrations " + pending);
+            }
+        } catch (SQLException e) {
+            throw new MigrationException("Could not read " + TABLE, e);
+        }
+    }
+
+    public List<AppliedMigration> getAppliedMigrations() {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!tableExists(connection, TABLE)) {
+                return new ArrayList<>();
+            }
+            return new ArrayList<>(readApplied(connection).values());
+        } catch (SQLException e) {
+            throw new MigrationException("Could not read " + TABLE, e);
+        }
+    }
+
+    private void ensureTable(final Connection connection) throws SQLException {
+        if (tableExists(connection, TABLE)) {
+            return;
+        }
+        if (!tableExists(connection, "customer")) {
+            throw new MigrationException("Baseline schema not found; create it with the setup profile before migrating");
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(CREATE_TABLE_SQL);
+        }
+        record(connection, 0, "baseline tables.sql", 0L, 0);
+        LOG.info("Recorded the existing schema as baseline version 0");
+    }
+
+    private Map<Integer, AppliedMigration> verifyChecksums(final Connection connection) throws SQLException {
+        Map<Integer, AppliedMigration> installed = readApplied(connection);
+        for (Migration migration : migrations) {
+            AppliedMigration applied = installed.get(migration.getVersion());
+            if (applied != null && applied.getChecksum() != migration.getChecksum()) {
+                throw new MigrationException(migration + " was changed after it was applied (checksum "
+                        + applied.getChecksum() + " in the database, " + migration.getChecksum() + " packaged)");
+            }
+        }
+        return installed;
+    }
+
+    private void apply(final Connection connection, final Migration migration) throws SQLException {
+        LOG.info("Applying {} ({})", migration, migration.isTransactional() ? "transactional" : "autocommit");
+        long start = System.nanoTime();
+        if (migration.isTransactional()) {
+            connection.setAutoCommit(false);
+            try {
+                execute(connection, migration);
+                record(connection, migration.getVersion(), migration.getDescription(), migration.getChecksum(), elapsedMillis(start));
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } else {
+            execute(connection, migration);
+            // A failed CREATE INDEX CONCURRENTLY leaves an invalid index behind which IF NOT EXISTS would then skip.
+            String invalid = invalidIndexes(connection, migration.getConcurrentIndexNames());
+            if (invalid != null) {
+                throw new MigrationException(migration + " left invalid indexes " + invalid + "; drop them and run the migration again");
+            }
+            record(connection, migration.getVersion(), migration.getDescription(), migration.getChecksum(), elapsedMillis(start));
+        }
+    }
+
+    private static void execute(final Connection connection, final Migration migration) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : migration.getStatements()) {
+                statement.execute(sql);
+            }
+        }
+    }
+
+    private static void record(final Connection connection, final int version, final String description, final long checksum, final int executionMillis) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+            statement.setInt(1, version);
+            statement.setString(2, description);
+            statement.setLong(3, checksum);
+            statement.setInt(4, executionMillis);
+            statement.executeUpdate();
+        }
+    }
+
+    private static Map<Integer, AppliedMigration> readApplied(final Connection connection) throws SQLException {
+        Map<Integer, AppliedMigration> applied = new TreeMap<>();
+        try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery(SELECT_SQL)) {
+            while (resultSet.next()) {
+                applied.put(resultSet.getInt(1), new AppliedMigration(resultSet.getInt(1), resultSet.getString(2), resultSet.getLong(3)));
+            }
+        }
+        return applied;
+    }
+
+    private static boolean tableExists(final Connection connection, final String table) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT to_regclass(?) IS NOT NULL")) {
+            statement.setString(1, table);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getBoolean(1);
+            }
+        }
+    }
+
+    private static String invalidIndexes(final Connection connection, final List<String> indexNames) throws SQLException {
+        if (indexNames.isEmpty()) {
+            return null;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(INVALID_INDEXES_SQL)) {
+            statement.setArray(1, connection.createArrayOf("text", indexNames.toArray()));
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getString(1) : null;
+            }
+        }
+    }
+
+    private static int elapsedMillis(final long startNanos) {
+        return (int) ((System.nanoTime() - startNanos) / 1_000_000L);
+    }
+
+    public static void main(final String[] args) {
+        if (args.length != 4) {
+            System.err.println("Usage: MigrationRunner <migrate|validate|info> <jdbc-url> <username> <password>");
+            System.exit(2);
+        }
+        MigrationRunner runner = new MigrationRunner(new DriverManagerDataSource(args[1], args[2], args[3]));
+        switch (args[0]) {
+            case "migrate":
+                List<Migration> applied = runner.migrate();
+                LOG.info("Applied {} migration(s); schema is at version {}", applied.size(), runner.getLatestVersion());
+                break;
+            case "validate":
+                runner.validate();
+                LOG.info("Schema is at version {} or newer", runner.getLatestVersion());
+                break;
+            case "info":
+                for (AppliedMigration migration : runner.getAppliedMigrations()) {
+                    LOG.info("V{} {} (checksum {})", migration.getVersion(), migration.getDescription(), migration.getChecksum());
+                }
+                LOG.info("Latest packaged version: {}", runner.getLatestVersion());
+                break;
+            default:
+                System.err.println("Unknown command " + args[0]);
+                System.exit(2);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.upgrad.myntra.db.migration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits a SQL script into statements at top-level semicolons, skipping comments, quoted strings, quoted identifiers
+ * and dollar-quoted bodies (DO blocks, function bodies).
+ */
+final class SqlScriptSplitter {
+
+    private SqlScriptSplitter() {
+    }
+
+    static List<String> split(final String script) {
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        int length = script.length();
+        int i = 0;
+        while (i < length) {
+            char c = script.charAt(i);
+            if (c == '-' && i + 1 < length && script.charAt(i + 1) == '-') {
+                int end = script.indexOf('\n', i);
+                i = end < 0 ? length : end + 1;
+                current.append('\n');
+            } else if (c == '/' && i + 1 < length && script.charAt(i + 1) == '*') {
+                int end = script.indexOf("*/", i + 2);
+                i = end < 0 ? length : end + 2;
+                current.append(' ');
+            } else if (c == '\'' || c == '"') {
+                int end = closingQuote(script, i, c);
+                current.append(script, i, end);
+                i = end;
+            } else if (c == '$' && dollarTag(script, i) != null) {
+                String tag = dollarTag(script, i);
+                int close = script.indexOf(tag, i + tag.length());
+                int end = close < 0 ? length : close + tag.length();
+                current.append(script, i, end);
+                i = end;
+            } else if (c == ';') {
+                add(statements, current);
+                current.setLength(0);
+                i++;
+            } else {
+                current.append(c);
+                i++;
+            }
+        }
+        add(statements, current);
+        return statements;
+    }
+
+    private static int closingQuote(final String script, final int start, final char quote) {
+        int i = start + 1;
+        while (i < script.length()) {
+            if (script.charAt(i) == quote) {
+                if (i + 1 < script.length() && script.charAt(i + 1) == quote) {
+                    i += 2;
+                    continue;
+                }
+                return i + 1;
+            }
+            i++;
+        }
+        return script.length();
+    }
+
+    /**
+     * @return the dollar-quote tag ("$$" or "$name$") starting at the given position, or null if there is none.
+     */
+    private static String dollarTag(final String script, final int start) {
+        int i = start + 1;
+        while (i < script.length()) {
+            char c = script.charAt(i);
+            if (c == '$') {
+                return script.substring(start, i + 1);
+            }
+            if (!(Character.isLetterOrDigit(c) || c == '_') || (i == start + 1 && Character.isDigit(c))) {
+                return null;
+            }
+            i++;
+        }
+        return null;
+    }
+
+    private static void add(final List<String> statements, final StringBuilder statement) {
+        String sql = statement.toString().trim();
+        if (!sql.isEmpty()) {
+            statements.add(sql);
+        }
+    }
+}
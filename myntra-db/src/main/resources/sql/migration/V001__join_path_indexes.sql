@@ -0,0 +1,28 @@
+-- Indexes for the join paths of the named queries. Every join table is indexed in both directions with a
+-- two-column index, so each hop of a join is an index-only scan. Indexes are built CONCURRENTLY, so this migration
+-- must run outside a transaction and does not block reads or writes of the catalog while it runs.
+
+-- getItemsByCategoryAndbrand: brand -> items through BRANDS_ITEM, item -> categories through CATEGORY_ITEM.
+-- ItemEntity.brand is loaded through BRANDS_ITEM by item_id.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS brands_item_brand_item_idx ON brands_item (brand_id, item_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS brands_item_item_brand_idx ON brands_item (item_id, brand_id);
+
+-- getItemsByCategoryAndbrand, CategoryEntity.items: category -> items and item -> categories.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS category_item_category_item_idx ON category_item (category_id, item_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS category_item_item_category_idx ON category_item (item_id, category_id);
+
+-- brandsByCategory: category -> brands. getCategoriesBybrand, BrandEntity.categories: brand -> categories.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS brands_category_category_brand_idx ON brands_category (category_id, brand_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS brands_category_brand_category_idx ON brands_category (brand_id, category_id);
+
+-- getAllAddress: customer -> addresses. getAddressByUUID, userByAddress: address -> owning customer.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS customer_address_customer_address_idx ON customer_address (customer_id, address_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS customer_address_address_customer_idx ON customer_address (address_id, customer_id);
+
+-- customerAuthByAccesstoken runs for every authorized request.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS customer_auth_access_token_idx ON customer_auth (access_token);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS customer_auth_customer_idx ON customer_auth (customer_id);
+
+-- Orderings of brandsByRating and getAllCategoriesOrderedByName.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS brands_customer_rating_idx ON brands (customer_rating DESC);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS category_category_name_idx ON category (category_name);
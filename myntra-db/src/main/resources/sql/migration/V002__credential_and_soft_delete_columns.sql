@@ -0,0 +1,8 @@
+-- Columns added to tables.sql for adaptive password hashing and address soft delete. Databases created from an
+-- older tables.sql get them here; on newer ones the statements are no-ops. Existing customers keep the legacy hash
+-- parameters they were registered with.
+ALTER TABLE customer ADD COLUMN IF NOT EXISTS hash_algorithm VARCHAR(50) NOT NULL DEFAULT 'PBKDF2WithHmacSHA512';
+ALTER TABLE customer ADD COLUMN IF NOT EXISTS hash_iterations INTEGER NOT NULL DEFAULT 1000;
+ALTER TABLE customer ADD COLUMN IF NOT EXISTS hash_key_length INTEGER NOT NULL DEFAULT 64;
+
+ALTER TABLE address ADD COLUMN IF NOT EXISTS deleted BOOLEAN NOT NULL DEFAULT FALSE;
@@ -0,0 +1,9 @@
+-- Catalog and address uuids move from VARCHAR(200) to the native 16 byte uuid type, which halves and more the
+-- unique indexes on them and compares as two machine words. Every stored value must be a valid uuid.
+-- ALTER COLUMN TYPE rewrites each table under an exclusive lock; run it in a maintenance window on a large catalog.
+-- Customer and token uuids stay VARCHAR: they are never looked up or joined on.
+ALTER TABLE state ALTER COLUMN uuid TYPE uuid USING uuid::uuid;
+ALTER TABLE address ALTER COLUMN uuid TYPE uuid USING uuid::uuid;
+ALTER TABLE category ALTER COLUMN uuid TYPE uuid USING uuid::uuid;
+ALTER TABLE item ALTER COLUMN uuid TYPE uuid USING uuid::uuid;
+ALTER TABLE brands ALTER COLUMN uuid TYPE uuid USING uuid::uuid;
@@ -0,0 +1,81 @@
+-- Every insert, update and delete on the catalog tables and their join tables is recorded in CATALOG_CHANGE by a
+-- trigger, in the same transaction as the change itself. Application instances poll the table and evict only the
+-- cached entries the change affects; rows are purged once they are older than the configured retention.
+--
+-- txid is the 64 bit id of the writing transaction. A poller consumes only rows whose transaction is older than the
+-- oldest transaction still running, so a row can never become visible behind the poller's position.
+CREATE TABLE IF NOT EXISTS catalog_change(
+  id BIGSERIAL PRIMARY KEY,
+  txid BIGINT NOT NULL DEFAULT txid_current(),
+  table_name VARCHAR(30) NOT NULL,
+  operation CHAR(1) NOT NULL,
+  entity_id INTEGER NOT NULL,
+  related_id INTEGER,
+  entity_uuid UUID,
+  changed_at TIMESTAMP NOT NULL DEFAULT now());
+
+CREATE INDEX IF NOT EXISTS catalog_change_txid_idx ON catalog_change(txid, id);
+CREATE INDEX IF NOT EXISTS catalog_change_changed_at_idx ON catalog_change(changed_at);
+
+-- BRANDS, CATEGORY and ITEM: entity_id is the row id.
+CREATE OR REPLACE FUNCTION record_catalog_entity_change() RETURNS TRIGGER AS $$
+BEGIN
+  IF TG_OP = 'DELETE' THEN
+    INSERT INTO catalog_change(table_name, operation, entity_id, entity_uuid) VALUES (TG_TABLE_NAME, 'D', OLD.id, OLD.uuid);
+    RETURN OLD;
+  END IF;
+  IF TG_OP = 'UPDATE' AND NEW.id <> OLD.id THEN
+    INSERT INTO catalog_change(table_name, operation, entity_id, entity_uuid) VALUES (TG_TABLE_NAME, 'D', OLD.id, OLD.uuid);
+    INSERT INTO catalog_change(table_name, operation, entity_id, entity_uuid) VALUES (TG_TABLE_NAME, 'I', NEW.id, NEW.uuid);
+  ELSE
+    INSERT INTO catalog_change(table_name, operation, entity_id, entity_uuid) VALUES (TG_TABLE_NAME, left(TG_OP, 1), NEW.id, NEW.uuid);
+  END IF;
+  RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Join tables: entity_id and related_id are the two linked ids, in the order the trigger arguments name them.
+-- An update is recorded as the old link removed and the new one added.
+CREATE OR REPLACE FUNCTION record_catalog_link_change() RETURNS TRIGGER AS $$
+DECLARE
+  old_row JSONB;
+  new_row JSONB;
+BEGIN
+  IF TG_OP <> 'INSERT' THEN
+    old_row := to_jsonb(OLD);
+    INSERT INTO catalog_change(table_name, operation, entity_id, related_id)
+      VALUES (TG_TABLE_NAME, 'D', (old_row ->> TG_ARGV[0])::INTEGER, (old_row ->> TG_ARGV[1])::INTEGER);
+  END IF;
+  IF TG_OP <> 'DELETE' THEN
+    new_row := to_jsonb(NEW);
+    INSERT INTO catalog_change(table_name, operation, entity_id, related_id)
+      VALUES (TG_TABLE_NAME, 'I', (new_row ->> TG_ARGV[0])::INTEGER, (new_row ->> TG_ARGV[1])::INTEGER);
+    RETURN NEW;
+  END IF;
+  RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS brands_change ON brands;
+CREATE TRIGGER brands_change AFTER INSERT OR UPDATE OR DELETE ON brands
+  FOR EACH ROW EXECUTE PROCEDURE record_catalog_entity_change();
+
+DROP TRIGGER IF EXISTS category_change ON category;
+CREATE TRIGGER category_change AFTER INSERT OR UPDATE OR DELETE ON category
+  FOR EACH ROW EXECUTE PROCEDURE record_catalog_entity_change();
+
+DROP TRIGGER IF EXISTS item_change ON item;
+CREATE TRIGGER item_change AFTER INSERT OR UPDATE OR DELETE ON item
+  FOR EACH ROW EXECUTE PROCEDURE record_catalog_entity_change();
+
+DROP TRIGGER IF EXISTS brands_item_change ON brands_item;
+CREATE TRIGGER brands_item_change AFTER INSERT OR UPDATE OR DELETE ON brands_item
+  FOR EACH ROW EXECUTE PROCEDURE record_catalog_link_change('brand_id', 'item_id');
+
+DROP TRIGGER IF EXISTS category_item_change ON category_item;
+CREATE TRIGGER category_item_change AFTER INSERT OR UPDATE OR DELETE ON category_item
+  FOR EACH ROW EXECUTE PROCEDURE record_catalog_link_change('category_id', 'item_id');
+
+DROP TRIGGER IF EXISTS brands_category_change ON brands_category;
+CREATE TRIGGER brands_category_change AFTER INSERT OR UPDATE OR DELETE ON brands_category
+  FOR EACH ROW EXECUTE PROCEDURE record_catalog_link_change('brand_id', 'category_id');
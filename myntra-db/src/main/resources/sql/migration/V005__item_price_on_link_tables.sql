@@ -0,0 +1,50 @@
+-- Price-ordered listing pages of a category or a brand read only the join table: the item price is copied into
+-- CATEGORY_ITEM and BRANDS_ITEM, so one composite index per table serves the price filter, the price order and the
+-- keyset position of a page together. Triggers keep the copies equal to ITEM.price in the writing transaction.
+ALTER TABLE category_item ADD COLUMN IF NOT EXISTS item_price INTEGER;
+ALTER TABLE brands_item ADD COLUMN IF NOT EXISTS item_price INTEGER;
+
+-- The copied price is not part of a link, so the change feed triggers now fire only when a linked id changes; the
+-- price change itself is already recorded against the item. They are narrowed before the backfill below, which
+-- would otherwise record a link change for every existing row.
+DROP TRIGGER IF EXISTS brands_item_change ON brands_item;
+CREATE TRIGGER brands_item_change AFTER INSERT OR UPDATE OF brand_id, item_id OR DELETE ON brands_item
+  FOR EACH ROW EXECUTE PROCEDURE record_catalog_link_change('brand_id', 'item_id');
+
+DROP TRIGGER IF EXISTS category_item_change ON category_item;
+CREATE TRIGGER category_item_change AFTER INSERT OR UPDATE OF category_id, item_id OR DELETE ON category_item
+  FOR EACH ROW EXECUTE PROCEDURE record_catalog_link_change('category_id', 'item_id');
+
+UPDATE category_item ci SET item_price = i.price FROM item i WHERE i.id = ci.item_id AND ci.item_price IS DISTINCT FROM i.price;
+UPDATE brands_item bi SET item_price = i.price FROM item i WHERE i.id = bi.item_id AND bi.item_price IS DISTINCT FROM i.price;
+
+-- A new or relinked row takes the price of its item.
+CREATE OR REPLACE FUNCTION copy_item_price() RETURNS TRIGGER AS $$
+BEGIN
+  SELECT price INTO NEW.item_price FROM item WHERE id = NEW.item_id;
+  RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS category_item_price ON category_item;
+CREATE TRIGGER category_item_price BEFORE INSERT OR UPDATE OF item_id ON category_item
+  FOR EACH ROW EXECUTE PROCEDURE copy_item_price();
+
+DROP TRIGGER IF EXISTS brands_item_price ON brands_item;
+CREATE TRIGGER brands_item_price BEFORE INSERT OR UPDATE OF item_id ON brands_item
+  FOR EACH ROW EXECUTE PROCEDURE copy_item_price();
+
+-- A price change is copied to every link of the item.
+CREATE OR REPLACE FUNCTION propagate_item_price() RETURNS TRIGGER AS $$
+BEGIN
+  IF NEW.price IS DISTINCT FROM OLD.price THEN
+    UPDATE category_item SET item_price = NEW.price WHERE item_id = NEW.id;
+    UPDATE brands_item SET item_price = NEW.price WHERE item_id = NEW.id;
+  END IF;
+  RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS item_price_propagate ON item;
+CREATE TRIGGER item_price_propagate AFTER UPDATE OF price ON item
+  FOR EACH ROW EXECUTE PROCEDURE propagate_item_price();
@@ -0,0 +1,5 @@
+-- Keyset pages of itemsByCategoryAndPrice and itemsByBrandAndPrice: the equality on the owner, then the range and
+-- order on the copied price, with item_id as the tie breaker of the page position. Either direction of the sort
+-- is one forward or backward range scan, whatever the size of the category or brand.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS category_item_price_idx ON category_item (category_id, item_price, item_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS brands_item_price_idx ON brands_item (brand_id, item_price, item_id);
@@ -0,0 +1,3 @@
+-- The catalog versions read the last recorded change of one brand once per brand and instance: the equality on the
+-- changed row's id, then the feed order, finds it with one backward index scan.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS catalog_change_entity_idx ON catalog_change (entity_id, txid, id);
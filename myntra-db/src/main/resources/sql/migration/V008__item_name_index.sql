@@ -0,0 +1,3 @@
+-- The item store reads ITEM in name order in short keyset chunks: (item_name, id) > (?, ?) is one index range scan
+-- per chunk instead of a sort of the whole table.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS item_name_id_idx ON item (item_name, id);
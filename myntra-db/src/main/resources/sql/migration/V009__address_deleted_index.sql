@@ -0,0 +1,3 @@
+-- Soft-deleted addresses waiting for the purge job; the partial index stays as small as the backlog. It follows V002,
+-- which adds the deleted column to databases created from an older tables.sql.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS address_deleted_idx ON address (id) WHERE deleted;
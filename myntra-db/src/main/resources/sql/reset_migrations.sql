@@ -0,0 +1,3 @@
+-- tables.sql recreates the schema from scratch, so the migration history of the old schema no longer applies.
+DROP TABLE IF EXISTS schema_migration;
+DROP TABLE IF EXISTS catalog_change;
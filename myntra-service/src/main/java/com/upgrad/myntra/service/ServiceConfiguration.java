@@ -3,11 +3,14 @@ package com.upgrad.myntra.service;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Enabling the component scan and entity scan of classes in the below mentioned "com.upgrad.myntra.service" and "com.upgrad.myntra.service.entity" packages respectively.
+ * Scheduling is enabled for the background maintenance jobs of the service layer.
  */
 @Configuration
+@EnableScheduling
 @ComponentScan("com.upgrad.myntra.service")
 @EntityScan("com.upgrad.myntra.service.entity")
 public class ServiceConfiguration {
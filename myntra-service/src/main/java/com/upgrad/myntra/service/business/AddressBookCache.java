@@ -0,0 +1,173 @@
+package com.upgrad.myntra.service.business;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-customer address book, least recently used customers evicted first.
+ * Address writes update the cached book after their transaction commits, so a rolled back save or delete never
+ * becomes visible and a book that is not cached is simply loaded on the next read.
+ * <p>
+ * Each instance holds its own books and only sees its own writes, so a book expires a fixed time after it was loaded
+ * from the database; a write made through another instance is visible here at most that long afterwards. Writes made
+ * here update a book without extending its life.
+ */
+@Component
+@ManagedResource(objectName = "com.upgrad.myntra:type=AddressBookCache")
+public class AddressBookCache {
+
+    @Value("${myntra.address.book-cache.max-customers:10000}")
+    private int maxCustomers;
+
+    @Value("${myntra.address.book-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    private Map<Integer, Book> books;
+
+    private long writeGeneration;
+
+    @PostConstruct
+    public void init() {
+        books = new LinkedHashMap<Integer, Book>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Book> eldest) {
+                return size() > maxCustomers;
+            }
+        };
+    }
+
+    /**
+     * @return the cached address book of the customer, newest address first, or null when it is not cached.
+     */
+    public synchronized List<AddressRecord> get(Integer customerId) {
+        Book book = current(customerId);
+        return book == null ? null : book.addresses;
+    }
+
+    /**
+     * @return a token to pass to {@link #putIfUnchanged} after loading a book from the database.
+     */
+    public synchronized long generation() {
+        return writeGeneration;
+    }
+
+    /**
+     * This method caches a book loaded from the database, unless an address write committed while it was loading.
+     */
+    public synchronized void putIfUnchanged(Integer customerId, List<AddressRecord> addresses, long generation) {
+        if (generation == writeGeneration) {
+            books.put(customerId, new Book(new ArrayList<>(addresses), System.nanoTime() + TimeUnit.SECONDS.toNanos(ttlSeconds)));
+        }
+    }
+
+    /**
+     * This method adds a saved address to the front of the customer's cached book once the transaction commits.
+     */
+    public void addAfterCommit(final Integer customerId, final AddressRecord address) {
+        addAllAfterCommit(customerId, Collections.singletonList(address));
+    }
+
+    /**
+     * This method adds saved addresses, in the order they were saved, to the front of the customer's cached book once
+     * the transaction commits.
+     */
+    public void addAllAfterCommit(final Integer customerId, final List<AddressRecord> addresses) {
+        afterCommit(() -> {
+            synchronized (this) {
+                writeGeneration++;
+                Book cached = current(customerId);
+                if (cached != null) {
+                    List<AddressRecord> updated = new ArrayList<>(cached.addresses.size() + addresses.size());
+                    for (int i = addresses.size() - 1; i >= 0; i--) {
+                        updated.add(addresses.get(i));
+                    }
+                    updated.addAll(cached.addresses);
+                    books.put(customerId, new Book(updated, cached.expiresAt));
+                }
+            }
+        });
+    }
+
+    /**
+     * This method removes a deleted address from the customer's cached book once the transaction commits.
+     */
+    public void removeAfterCommit(final Integer customerId, final UUID addressUuid) {
+        afterCommit(() -> {
+            synchronized (this) {
+                writeGeneration++;
+                Book cached = current(customerId);
+                if (cached != null) {
+                    List<AddressRecord> updated = new ArrayList<>(cached.addresses);
+                    updated.removeIf(address -> address.getUuid().equals(addressUuid));
+                    books.put(customerId, new Book(updated, cached.expiresAt));
+                }
+            }
+        });
+    }
+
+    public synchronized void evict(Integer customerId) {
+        books.remove(customerId);
+    }
+
+    @ManagedOperation(description = "Drop every cached address book")
+    public synchronized void clear() {
+        books.clear();
+    }
+
+    @ManagedAttribute(description = "Number of customers with a cached address book")
+    public synchronized int getSize() {
+        return books.size();
+    }
+
+    /**
+     * @return the customer's book, or null when it is not cached or has expired; an expired book is dropped.
+     */
+    private Book current(Integer customerId) {
+        Book book = books.get(customerId);
+        if (book != null && System.nanoTime() - book.expiresAt >= 0) {
+            books.remove(customerId);
+            return null;
+        }
+        return book;
+    }
+
+    private static void afterCommit(final Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static final class Book {
+
+        private final List<AddressRecord> addresses;
+
+        // System.nanoTime() at which the book must be loaded again.
+        private final long expiresAt;
+
+        private Book(List<AddressRecord> addresses, long expiresAt) {
+            this.addresses = Collections.unmodifiableList(addresses);
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.upgrad.myntra.service.business;
+
+import com.upgrad.myntra.service.dao.AddressDao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Physically deletes soft-deleted addresses off-peak. Each batch is its own short transaction, so the foreign key
+ * cascades never hold locks for long and request traffic can interleave between batches.
+ */
+@Component
+@ManagedResource(objectName = "com.upgrad.myntra:type=AddressPurger")
+public class AddressPurger {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AddressPurger.class);
+
+    @Autowired
+    private AddressDao addressDao;
+
+    @Value("${myntra.address.purge.batch-size:500}")
+    private int batchSize;
+
+    @Value("${myntra.address.purge.max-batches:200}")
+    private int maxBatches;
+
+    @Scheduled(cron = "${myntra.address.purge.cron:0 0 3 * * *}")
+    @ManagedOperation(description = "Delete tombstoned addresses now")
+    public int purge() {
+        int purged = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            int deleted = addressDao.purgeDeletedAddresses(batchSize);
+            purged += deleted;
+            if (deleted < batchSize) {
+                break;
+            }
+        }
+        if (purged > 0) {
+            LOG.info("Purged {} soft-deleted addresses", purged);
+        }
+        return purged;
+    }
+}
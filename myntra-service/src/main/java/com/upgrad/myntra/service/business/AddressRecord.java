@@ -0,0 +1,71 @@
+package com.upgrad.myntra.service.business;
+
+import com.upgrad.myntra.service.entity.AddressEntity;
+import com.upgrad.myntra.service.entity.StateEntity;
+
+import java.util.UUID;
+
+/**
+ * Immutable, detached view of a saved customer address with its state name already resolved.
+ */
+public final class AddressRecord {
+
+    private final UUID uuid;
+
+    private final String flatBuilNo;
+
+    private final String locality;
+
+    private final String city;
+
+    private final String pincode;
+
+    private final UUID stateUuid;
+
+    private final String stateName;
+
+    public AddressRecord(UUID uuid, String flatBuilNo, String locality, String city, String pincode, UUID stateUuid, String stateName) {
+        this.uuid = uuid;
+        this.flatBuilNo = flatBuilNo;
+        this.locality = locality;
+        this.city = city;
+        this.pincode = pincode;
+        this.stateUuid = stateUuid;
+        this.stateName = stateName;
+    }
+
+    public static AddressRecord of(AddressEntity addressEntity) {
+        StateEntity state = addressEntity.getState();
+        return new AddressRecord(addressEntity.getUuid(), addressEntity.getFlatBuilNo(), addressEntity.getLocality(),
+                addressEntity.getCity(), addressEntity.getPincode(), state == null ? null : state.getUuid(),
+                state == null ? null : state.getStateName());
+    }
+
+    public UUID getUuid() {
+        return uuid;
+    }
+
+    public String getFlatBuilNo() {
+        return flatBuilNo;
+    }
+
+    public String getLocality() {
+        return locality;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public String getPincode() {
+        return pincode;
+    }
+
+    public UUID getStateUuid() {
+        return stateUuid;
+    }
+
+    public String getStateName() {
+        return stateName;
+    }
+}
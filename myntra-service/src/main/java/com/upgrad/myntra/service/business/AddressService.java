@@ -13,6 +13,7 @@ import com.upgrad.myntra.service.exception.AuthorizationFailedException;
 import com.upgrad.myntra.service.exception.SaveAddressException;
 
 import java.util.List;
+import java.util.UUID;
 
 /*
  * This AddressService interface gives the list of all the service that exist in the address service implementation class.
@@ -22,9 +23,14 @@ public interface AddressService {
 
     AddressEntity saveAddress(AddressEntity addressEntity, CustomerAddressEntity customerAddressEntity) throws
             SaveAddressException;
-    AddressEntity getAddressByUUID(String addressId, CustomerEntity customerEntity) throws AuthorizationFailedException,
+    List<AddressEntity> saveAddresses(CustomerEntity customer, List<AddressEntity> addressEntities) throws
+            SaveAddressException;
+    AddressEntity getAddressByUUID(UUID addressId, CustomerEntity customerEntity) throws AuthorizationFailedException,
             AddressNotFoundException;
     AddressEntity deleteAddress(AddressEntity addressEntity)throws AddressNotFoundException;
     List<AddressEntity> getAllAddress(CustomerEntity customer);
-    StateEntity getStateByUUID(String uuid) throws AddressNotFoundException;
+    List<AddressRecord> getAddressBook(CustomerEntity customer);
+    StateEntity getStateByUUID(UUID uuid) throws AddressNotFoundException;
+    List<StateEntity> getAllStates();
+    boolean isServiceable(String pincode);
 }
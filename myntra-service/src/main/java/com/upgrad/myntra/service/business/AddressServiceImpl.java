@@ -2,6 +2,8 @@ package com.upgrad.myntra.service.business;
 
 
 
+import com.upgrad.myntra.service.common.Workload;
+import com.upgrad.myntra.service.common.WorkloadPool;
 import com.upgrad.myntra.service.dao.AddressDao;
 import com.upgrad.myntra.service.entity.AddressEntity;
 import com.upgrad.myntra.service.entity.CustomerAddressEntity;
@@ -11,17 +13,30 @@ import com.upgrad.myntra.service.exception.AddressNotFoundException;
 import com.upgrad.myntra.service.exception.AuthorizationFailedException;
 import com.upgrad.myntra.service.exception.SaveAddressException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 import java.util.regex.Pattern;
 
-@Service public class AddressServiceImpl implements AddressService {
+@Service @WorkloadPool(Workload.WRITE) public class AddressServiceImpl implements AddressService {
+
+	private static final Pattern PINCODE_PATTERN = Pattern.compile("[0-9]{6}");
 
 	@Autowired private AddressDao addressDao;
 
+	@Autowired private StateRegistry stateRegistry;
+
+	@Autowired private AddressBookCache addressBookCache;
+
+	@Autowired private PincodeIndex pincodeIndex;
+
+	@Value("${myntra.address.soft-delete:false}") private boolean softDelete;
+
 
 	/**
 	 * The method implements the business logic for save address endpoint.
@@ -29,32 +44,92 @@ import java.util.regex.Pattern;
 	@Override
 	@Transactional(propagation = Propagation.REQUIRED)
 	public AddressEntity saveAddress(AddressEntity addressEntity, CustomerAddressEntity customerAddressEntity) throws SaveAddressException {
-		if(addressEntity.getCity().length()==0||addressEntity.getFlatBuilNo().length()==0||addressEntity.getLocality().length()==0||addressEntity.getUuid().length()==0||addressEntity.getPincode().length()==0)
-			throw new SaveAddressException("SAR-001","No field can be empty");
-		if(!isPincodeValid(addressEntity.getPincode()))
-			throw new SaveAddressException("SAR-002","Invalid pincode");
-		if(getStateByUUID(addressEntity.getUuid())==null)
+		if(addressEntity.getUuid()==null)
+			addressEntity.setUuid(UUID.randomUUID());
+		validateFields(addressEntity, "");
+		StateEntity state = addressEntity.getState()==null ? null : stateRegistry.getState(addressEntity.getState().getUuid());
+		if(state==null)
 			throw new SaveAddressException("ANF-002","No state by this id");
-		else
-			addressEntity.setState(getStateByUUID(addressEntity.getUuid()));
+		if(!pincodeIndex.matchesState(addressEntity.getPincode(), state.getUuid()))
+			throw new SaveAddressException("SAR-003","Pincode does not belong to the selected state");
+		addressEntity.setState(state);
 		addressEntity = addressDao.saveAddress(addressEntity);
+		if(customerAddressEntity!=null && customerAddressEntity.getCustomer()!=null) {
+			customerAddressEntity.setAddress(addressEntity);
+			addressDao.saveCustomerAddress(customerAddressEntity);
+			addressBookCache.addAfterCommit(customerAddressEntity.getCustomer().getId(), AddressRecord.of(addressEntity));
+		}
 			return addressEntity;
 	}
 
+	/**
+	 * The method implements the business logic for saving many addresses of one customer at once.
+	 * Each address names its state through getState().getUuid(); an address without a uuid is given a new one.
+	 * Every entry is validated before anything is written, and all rows are inserted in one transaction.
+	 */
+	@Override
+	@Transactional(propagation = Propagation.REQUIRED)
+	public List<AddressEntity> saveAddresses(CustomerEntity customer, List<AddressEntity> addressEntities) throws SaveAddressException {
+		List<AddressRecord> records = new ArrayList<>(addressEntities.size());
+		for(int i=0;i<addressEntities.size();i++) {
+			AddressEntity addressEntity = addressEntities.get(i);
+			if(addressEntity.getUuid()==null)
+				addressEntity.setUuid(UUID.randomUUID());
+			String position = "Address " + (i + 1) + ": ";
+			validateFields(addressEntity, position);
+			StateEntity state = addressEntity.getState()==null ? null : stateRegistry.getState(addressEntity.getState().getUuid());
+			if(state==null)
+				throw new SaveAddressException("ANF-002",position+"No state by this id");
+			if(!pincodeIndex.matchesState(addressEntity.getPincode(), state.getUuid()))
+				throw new SaveAddressException("SAR-003",position+"Pincode does not belong to the selected state");
+			addressEntity.setState(state);
+		}
+		addressDao.saveAddresses(customer, addressEntities);
+		for(AddressEntity addressEntity : addressEntities)
+			records.add(AddressRecord.of(addressEntity));
+		addressBookCache.addAllAfterCommit(customer.getId(), records);
+		return addressEntities;
+	}
+
+	private void validateFields(AddressEntity addressEntity, String position) throws SaveAddressException {
+		if(isEmpty(addressEntity.getCity())||isEmpty(addressEntity.getFlatBuilNo())||isEmpty(addressEntity.getLocality())||isEmpty(addressEntity.getPincode()))
+			throw new SaveAddressException("SAR-001",position+"No field can be empty");
+		if(!isPincodeValid(addressEntity.getPincode()))
+			throw new SaveAddressException("SAR-002",position+"Invalid pincode");
+	}
+
+	private static boolean isEmpty(String value) {
+		return value==null||value.length()==0;
+	}
+
 	public boolean isPincodeValid(String pin){
-		Pattern p = Pattern.compile("[0-9]{6}");
 		if(pin.length()!=6)
 			return false;
-		return p.matcher(pin).matches();
+		return PINCODE_PATTERN.matcher(pin).matches();
+	}
+
+	/**
+	 * The method implements the business logic for checking whether deliveries can be made to a pincode.
+	 */
+	@Override public boolean isServiceable(String pincode) {
+		return pincodeIndex.isServiceable(pincode);
 	}
 
 
 	/**
 	 * The method implements the business logic for get address by uuid endpoint.
+	 * Only the customer who saved the address may access it.
 	 */
 	@Override
-	public AddressEntity getAddressByUUID(String addressId, CustomerEntity customerEntity) throws AuthorizationFailedException, AddressNotFoundException {
-		return addressDao.getAddressByUUID(addressId);
+	public AddressEntity getAddressByUUID(UUID addressId, CustomerEntity customerEntity) throws AuthorizationFailedException, AddressNotFoundException {
+		if(addressId==null)
+			throw new AddressNotFoundException("ANF-005","Address id can not be empty");
+		CustomerAddressEntity owner = addressDao.getCustomerByAddress(addressId);
+		if(owner==null)
+			throw new AddressNotFoundException("ANF-003","No address by this id");
+		if(!owner.getCustomer().getId().equals(customerEntity.getId()))
+			throw new AuthorizationFailedException("ATHR-004","You are not authorized to view/update/delete any one else's address");
+		return owner.getAddress();
 	}
 
 
@@ -71,11 +146,17 @@ import java.util.regex.Pattern;
 
 	/**
 	 * The method implements the business logic for delete address endpoint.
+	 * In soft-delete mode the address is only tombstoned here and physically removed later by the AddressPurger.
 	 */
 	@Override @Transactional(propagation = Propagation.REQUIRED)
 	public AddressEntity deleteAddress(AddressEntity addressEntity) throws AddressNotFoundException{
-		if(addressEntity.getUuid().length()==0)
+		if(addressEntity.getUuid()==null)
 			throw new AddressNotFoundException("ANF-005","Address id can not be empty");
+		CustomerAddressEntity owner = addressDao.getCustomerByAddress(addressEntity.getUuid());
+		if(owner!=null)
+			addressBookCache.removeAfterCommit(owner.getCustomer().getId(), addressEntity.getUuid());
+		if(softDelete)
+			return addressDao.markAddressDeleted(addressEntity);
 		return addressDao.deleteAddress(addressEntity);
 	}
 
@@ -86,12 +167,34 @@ import java.util.regex.Pattern;
 		return addressDao.getAllAddress(customer);
 	}
 
+	/**
+	 * The method implements the business logic for getting the customer's address book, served from the address book
+	 * cache when the customer's book is cached.
+	 */
+	@Override public List<AddressRecord> getAddressBook(CustomerEntity customer) {
+		List<AddressRecord> cached = addressBookCache.get(customer.getId());
+		if(cached!=null)
+			return cached;
+		long generation = addressBookCache.generation();
+		List<AddressRecord> addressBook = new ArrayList<>();
+		for(AddressEntity addressEntity : addressDao.getAllAddress(customer))
+			addressBook.add(AddressRecord.of(addressEntity));
+		addressBookCache.putIfUnchanged(customer.getId(), addressBook, generation);
+		return addressBook;
+	}
+
 	/**
 	 * The method implements the business logic for getting state by id.
 	 */
-	@Override public StateEntity getStateByUUID(String uuid) {
-		StateEntity stateByUUID=addressDao.getStateByUUID(uuid);
-		return stateByUUID;
+	@Override public StateEntity getStateByUUID(UUID uuid) {
+		return stateRegistry.getState(uuid);
+	}
+
+	/**
+	 * The method implements the business logic for getting all states ordered by name.
+	 */
+	@Override public List<StateEntity> getAllStates() {
+		return stateRegistry.getAllStates();
 	}
 
 
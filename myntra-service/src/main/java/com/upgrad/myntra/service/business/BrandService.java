@@ -9,6 +9,7 @@ import com.upgrad.myntra.service.exception.BrandNotFoundException;
 import com.upgrad.myntra.service.exception.CategoryNotFoundException;
 
 import java.util.List;
+import java.util.UUID;
 
 /*
  * This BrandService interface gives the list of all the service that exist in the brand service implementation class.
@@ -16,11 +17,11 @@ import java.util.List;
  */
 public interface BrandService {
 
-    BrandEntity brandByUUID(String brandId) throws BrandNotFoundException;
+    BrandEntity brandByUUID(UUID brandId) throws BrandNotFoundException;
 
     List<BrandEntity> brandsByName(String brandName) throws BrandNotFoundException;
 
     List<BrandEntity> brandsByRating();
 
-    List<BrandEntity> brandByCategory(String categoryId) throws CategoryNotFoundException;
+    List<BrandEntity> brandByCategory(UUID categoryId) throws CategoryNotFoundException;
 }
@@ -2,6 +2,8 @@ package com.upgrad.myntra.service.business;
 
 
 
+import com.upgrad.myntra.service.common.Workload;
+import com.upgrad.myntra.service.common.WorkloadPool;
 import com.upgrad.myntra.service.dao.BrandDao;
 import com.upgrad.myntra.service.dao.CategoryDao;
 import com.upgrad.myntra.service.entity.BrandEntity;
@@ -11,8 +13,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.UUID;
 
 @Service
+@WorkloadPool(Workload.CATALOG)
 public class BrandServiceImpl implements BrandService {
 
     @Autowired
@@ -25,7 +29,7 @@ public class BrandServiceImpl implements BrandService {
      * The method implements the business logic for getting brand details by brand uuid.
      */
     @Override
-    public BrandEntity brandByUUID(String brandId) throws BrandNotFoundException {
+    public BrandEntity brandByUUID(UUID brandId) throws BrandNotFoundException {
         return brandDao.brandByUUID(brandId);
     }
 
@@ -50,7 +54,7 @@ public class BrandServiceImpl implements BrandService {
      * The method implements the business logic for getting brands by their category.
      */
     @Override
-    public List<BrandEntity> brandByCategory(String categoryId) throws CategoryNotFoundException {
+    public List<BrandEntity> brandByCategory(UUID categoryId) throws CategoryNotFoundException {
         return brandDao.brandByCategory(categoryId);
     }
 
@@ -0,0 +1,135 @@
+package com.upgrad.myntra.service.business;
+
+import com.upgrad.myntra.service.entity.BrandEntity;
+import com.upgrad.myntra.service.entity.CategoryEntity;
+import com.upgrad.myntra.service.entity.ItemEntity;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnit;
+
+/**
+ * Evicts catalog rows from the Hibernate second-level cache. Catalog tables are maintained outside the application;
+ * each committed change arrives as a {@link CatalogChangeEvent} and evicts only the row or the association collections
+ * it touches. The JMX operations remain for evicting by hand.
+ * <p>
+ * Cached catalog query results are always dropped as a whole, since a query result cannot be matched to the rows
+ * it was filtered on.
+ */
+@Component
+@ManagedResource(objectName = "com.upgrad.myntra:type=CatalogCache")
+public class CatalogCacheEvictor {
+
+    private static final String QUERY_REGION = "catalog.query";
+
+    private static final String BRAND_ITEMS = BrandEntity.class.getName() + ".items";
+
+    private static final String BRAND_CATEGORIES = BrandEntity.class.getName() + ".categories";
+
+    private static final String CATEGORY_ITEMS = CategoryEntity.class.getName() + ".items";
+
+    private static final String CATEGORY_BRANDS = CategoryEntity.class.getName() + ".brands";
+
+    private static final String ITEM_CATEGORIES = ItemEntity.class.getName() + ".categories";
+
+    private static final String[] ASSOCIATION_ROLES = {
+            BRAND_ITEMS, BRAND_CATEGORIES, CATEGORY_ITEMS, CATEGORY_BRANDS, ITEM_CATEGORIES
+    };
+
+    private static final Logger LOG = LoggerFactory.getLogger(CatalogCacheEvictor.class);
+
+    @PersistenceUnit
+    private EntityManagerFactory entityManagerFactory;
+
+    private Cache cache;
+
+    @PostConstruct
+    public void init() {
+        cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+
+    /**
+     * This method evicts the entries a committed catalog change makes stale. A changed row evicts the row itself;
+     * its association collections hold only ids and stay valid. A changed link evicts the collection on both sides.
+     */
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        switch (event.getSubject()) {
+            case BRAND:
+                cache.evictEntity(BrandEntity.class, event.getId());
+                break;
+            case CATEGORY:
+                cache.evictEntity(CategoryEntity.class, event.getId());
+                break;
+            case ITEM:
+                cache.evictEntity(ItemEntity.class, event.getId());
+                break;
+            case BRAND_ITEM:
+                cache.evictCollection(BRAND_ITEMS, event.getBrandId());
+                // The item's brand is part of the cached item row.
+                cache.evictEntity(ItemEntity.class, event.getItemId());
+                break;
+            case CATEGORY_ITEM:
+                cache.evictCollection(CATEGORY_ITEMS, event.getCategoryId());
+                cache.evictCollection(ITEM_CATEGORIES, event.getItemId());
+                break;
+            case BRAND_CATEGORY:
+                cache.evictCollection(BRAND_CATEGORIES, event.getBrandId());
+                cache.evictCollection(CATEGORY_BRANDS, event.getCategoryId());
+                break;
+            default:
+                break;
+        }
+        cache.evictQueryRegion(QUERY_REGION);
+    }
+
+    @ManagedOperation(description = "Evict one brand by id, with the catalog associations and query results")
+    public void evictBrand(Integer brandId) {
+        cache.evictEntity(BrandEntity.class, brandId);
+        evictAssociationsAndQueries();
+    }
+
+    @ManagedOperation(description = "Evict one category by id, with the catalog associations and query results")
+    public void evictCategory(Integer categoryId) {
+        cache.evictEntity(CategoryEntity.class, categoryId);
+        evictAssociationsAndQueries();
+    }
+
+    @ManagedOperation(description = "Evict one item by id, with the catalog associations and query results")
+    public void evictItem(Integer itemId) {
+        cache.evictEntity(ItemEntity.class, itemId);
+        evictAssociationsAndQueries();
+    }
+
+    @ManagedOperation(description = "Evict the cached catalog query results only")
+    public void evictQueries() {
+        cache.evictQueryRegion(QUERY_REGION);
+    }
+
+    @ManagedOperation(description = "Evict every cached brand, category, item, association and catalog query result")
+    public void evictCatalog() {
+        cache.evictEntityRegion(BrandEntity.class);
+        cache.evictEntityRegion(CategoryEntity.class);
+        cache.evictEntityRegion(ItemEntity.class);
+        evictAssociationsAndQueries();
+        LOG.info("Evicted the catalog from the second-level cache");
+    }
+
+    private void evictAssociationsAndQueries() {
+        for (String role : ASSOCIATION_ROLES) {
+            cache.evictCollectionRegion(role);
+        }
+        cache.evictQueryRegion(QUERY_REGION);
+    }
+}
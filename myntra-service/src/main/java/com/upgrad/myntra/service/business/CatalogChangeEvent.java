@@ -0,0 +1,173 @@
+package com.upgrad.myntra.service.business;
+
+import java.util.UUID;
+
+/**
+ * One committed change to a catalog table, published in commit order by {@link CatalogChangePoller} to in-process
+ * listeners ({@code @EventListener}). Row changes carry the id and uuid of the row; link changes carry the ids of
+ * both linked rows, e.g. an item added to a category is {@code CATEGORY_ITEM ADDED} with the category and item ids.
+ */
+public class CatalogChangeEvent {
+
+    public enum Subject {
+        BRAND("brands"),
+        CATEGORY("category"),
+        ITEM("item"),
+        BRAND_ITEM("brands_item"),
+        CATEGORY_ITEM("category_item"),
+        BRAND_CATEGORY("brands_category");
+
+        private final String tableName;
+
+        Subject(String tableName) {
+            this.tableName = tableName;
+        }
+
+        public String getTableName() {
+            return tableName;
+        }
+
+        public boolean isLink() {
+            return this == BRAND_ITEM || this == CATEGORY_ITEM || this == BRAND_CATEGORY;
+        }
+
+        static Subject ofTable(String tableName) {
+            for (Subject subject : values()) {
+                if (subject.tableName.equalsIgnoreCase(tableName)) {
+                    return subject;
+                }
+            }
+            return null;
+        }
+    }
+
+    public enum Change {
+        ADDED, UPDATED, REMOVED;
+
+        static Change ofOperation(String operation) {
+            switch (operation) {
+                case "I":
+                    return ADDED;
+                case "U":
+                    return UPDATED;
+                case "D":
+                    return REMOVED;
+                default:
+                    return null;
+            }
+        }
+    }
+
+    private final long sequence;
+
+    private final long txid;
+
+    private final long changedAt;
+
+    private final Subject subject;
+
+    private final Change change;
+
+    private final Integer id;
+
+    private final Integer relatedId;
+
+    private final UUID uuid;
+
+    public CatalogChangeEvent(long sequence, long txid, long changedAt, Subject subject, Change change, Integer id,
+                              Integer relatedId, UUID uuid) {
+        this.sequence = sequence;
+        this.txid = txid;
+        this.changedAt = changedAt;
+        this.subject = subject;
+        this.change = change;
+        this.id = id;
+        this.relatedId = relatedId;
+        this.uuid = uuid;
+    }
+
+    /**
+     * @return the id of the CATALOG_CHANGE row the event was read from.
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * @return the id of the transaction that made the change; with the sequence, the position of the event in the feed.
+     */
+    public long getTxid() {
+        return txid;
+    }
+
+    /**
+     * @return the time the change was written, in milliseconds.
+     */
+    public long getChangedAt() {
+        return changedAt;
+    }
+
+    public Subject getSubject() {
+        return subject;
+    }
+
+    public Change getChange() {
+        return change;
+    }
+
+    /**
+     * @return the changed row's id, or for a link the id of the first linked row: the brand for BRAND_ITEM and
+     * BRAND_CATEGORY, the category for CATEGORY_ITEM.
+     */
+    public Integer getId() {
+        return id;
+    }
+
+    /**
+     * @return for a link the id of the second linked row: the item for BRAND_ITEM and CATEGORY_ITEM, the category for
+     * BRAND_CATEGORY; null for a row change.
+     */
+    public Integer getRelatedId() {
+        return relatedId;
+    }
+
+    /**
+     * @return the uuid of the changed brand, category or item; null for a link change.
+     */
+    public UUID getUuid() {
+        return uuid;
+    }
+
+    public Integer getBrandId() {
+        return subject == Subject.BRAND || subject == Subject.BRAND_ITEM || subject == Subject.BRAND_CATEGORY ? id : null;
+    }
+
+    public Integer getCategoryId() {
+        switch (subject) {
+            case CATEGORY:
+            case CATEGORY_ITEM:
+                return id;
+            case BRAND_CATEGORY:
+                return relatedId;
+            default:
+                return null;
+        }
+    }
+
+    public Integer getItemId() {
+        switch (subject) {
+            case ITEM:
+                return id;
+            case BRAND_ITEM:
+            case CATEGORY_ITEM:
+                return relatedId;
+            default:
+                return null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return subject + " " + change + " " + id + (relatedId == null ? "" : "/" + relatedId);
+    }
+}
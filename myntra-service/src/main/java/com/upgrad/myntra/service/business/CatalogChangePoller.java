@@ -0,0 +1,165 @@
+package com.upgrad.myntra.service.business;
+
+import com.upgrad.myntra.service.dao.CatalogChangeDao;
+import com.upgrad.myntra.service.entity.CatalogChangeEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Polls the CATALOG_CHANGE outbox filled by the catalog table triggers and publishes each row as a
+ * {@link CatalogChangeEvent}, in commit order, to the listeners of this application instance.
+ * <p>
+ * The position is the (transaction id, row id) of the last row published. Only rows of transactions older than the
+ * oldest transaction still running are read, so a row committed late by a long transaction is never skipped. Every
+ * instance keeps its own position and starts at the current end of the feed, since its caches start empty.
+ * <p>
+ * With a publish delay, a change is published only once it has been committed for at least that long, so that a
+ * replica lagging by less than the delay already serves it when listeners evict their caches and advance versions.
+ */
+@Component
+@ManagedResource(objectName = "com.upgrad.myntra:type=CatalogChangePoller")
+public class CatalogChangePoller {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CatalogChangePoller.class);
+
+    @Autowired
+    private CatalogChangeDao catalogChangeDao;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${myntra.catalog.changes.batch-size:500}")
+    private int batchSize;
+
+    @Value("${myntra.catalog.changes.retention-hours:24}")
+    private int retentionHours;
+
+    @Value("${myntra.catalog.changes.publish-delay-ms:0}")
+    private long publishDelayMs;
+
+    // Visibility horizons sampled by earlier polls with their sampling time, oldest first.
+    private final Deque<long[]> horizons = new ArrayDeque<>();
+
+    private volatile long startHorizon = -1;
+
+    private volatile long positionTxid = -1;
+
+    private volatile long positionId;
+
+    private volatile long published;
+
+    @EventListener(ContextRefreshedEvent.class)
+    public synchronized void start() {
+        if (positionTxid < 0) {
+            startHorizon = catalogChangeDao.getVisibilityHorizon();
+            positionTxid = startHorizon - 1;
+            positionId = Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * This method starts the poller if it has not started yet.
+     *
+     * @return the horizon the feed starts at: changes of older transactions are never published on this instance,
+     * every change of a newer one is.
+     */
+    public synchronized long getStartHorizon() {
+        start();
+        return startHorizon;
+    }
+
+    /**
+     * This method publishes every change that has become visible since the last poll.
+     *
+     * @return the number of events published.
+     */
+    @Scheduled(fixedDelayString = "${myntra.catalog.changes.poll-ms:1000}")
+    @ManagedOperation(description = "Publish the pending catalog changes now")
+    public synchronized int poll() {
+        if (positionTxid < 0) {
+            return 0;
+        }
+        long horizon = publishableHorizon();
+        int count = 0;
+        List<CatalogChangeEntity> changes;
+        do {
+            changes = catalogChangeDao.getChangesAfter(positionTxid, positionId, horizon, batchSize);
+            for (CatalogChangeEntity change : changes) {
+                publish(change);
+                positionTxid = change.getTxid();
+                positionId = change.getId();
+            }
+            count += changes.size();
+        } while (changes.size() == batchSize);
+        published += count;
+        return count;
+    }
+
+    /**
+     * @return the newest sampled horizon that is at least the publish delay old: every transaction below it had
+     * committed by the time it was sampled.
+     */
+    private long publishableHorizon() {
+        long now = System.currentTimeMillis();
+        horizons.addLast(new long[]{now, catalogChangeDao.getVisibilityHorizon()});
+        long horizon = positionTxid + 1;
+        while (!horizons.isEmpty() && horizons.peekFirst()[0] <= now - publishDelayMs) {
+            horizon = horizons.removeFirst()[1];
+        }
+        return horizon;
+    }
+
+    private void publish(CatalogChangeEntity change) {
+        CatalogChangeEvent.Subject subject = CatalogChangeEvent.Subject.ofTable(change.getTableName());
+        CatalogChangeEvent.Change kind = CatalogChangeEvent.Change.ofOperation(change.getOperation());
+        if (subject == null || kind == null) {
+            LOG.warn("Skipping catalog change {} of unknown table {} or operation {}", change.getId(),
+                    change.getTableName(), change.getOperation());
+            return;
+        }
+        try {
+            eventPublisher.publishEvent(new CatalogChangeEvent(change.getId(), change.getTxid(),
+                    Timestamp.valueOf(change.getChangedAt()).getTime(), subject, kind, change.getEntityId(),
+                    change.getRelatedId(), change.getEntityUuid()));
+        } catch (RuntimeException e) {
+            // One failing listener must not stall the feed for the others.
+            LOG.error("Catalog change listener failed on change {}", change.getId(), e);
+        }
+    }
+
+    @Scheduled(cron = "${myntra.catalog.changes.purge-cron:0 30 * * * *}")
+    @ManagedOperation(description = "Delete catalog changes older than the retention period")
+    public int purge() {
+        int purged = catalogChangeDao.purgeChangesBefore(LocalDateTime.now().minusHours(retentionHours));
+        if (purged > 0) {
+            LOG.info("Purged {} catalog changes", purged);
+        }
+        return purged;
+    }
+
+    @ManagedAttribute(description = "Transaction id of the last catalog change published")
+    public long getPositionTxid() {
+        return positionTxid;
+    }
+
+    @ManagedAttribute(description = "Catalog changes published since startup")
+    public long getPublished() {
+        return published;
+    }
+}
@@ -0,0 +1,284 @@
+package com.upgrad.myntra.service.business;
+
+import com.upgrad.myntra.service.business.CatalogChangeEvent.Subject;
+import com.upgrad.myntra.service.common.Workload;
+import com.upgrad.myntra.service.common.WorkloadContext;
+import com.upgrad.myntra.service.dao.BrandDao;
+import com.upgrad.myntra.service.dao.ItemDao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * In-memory copy of BRANDS_CATEGORY, BRANDS_ITEM and CATEGORY_ITEM as int id adjacency arrays, in the directions the
+ * catalog asks about: brand to categories, brand to items and category to items. It answers whether a brand has no
+ * categories, or no items in a category, so those requests need no query; lookups read primitive arrays only.
+ * <p>
+ * Each table is kept on its own. A link change from the catalog change feed marks the brand or category it belongs
+ * to, and lookups for marked ids go to the database until a scheduled check has reloaded that one table; every other
+ * id is still answered from memory. The feed is started before a table is loaded, so no change can fall between the
+ * two.
+ */
+@Component
+@ManagedResource(objectName = "com.upgrad.myntra:type=CatalogRelations")
+public class CatalogRelations {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CatalogRelations.class);
+
+    @Autowired
+    private BrandDao brandDao;
+
+    @Autowired
+    private ItemDao itemDao;
+
+    @Autowired
+    private CatalogChangePoller catalogChangePoller;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${myntra.catalog.relations.enabled:true}")
+    private boolean enabled;
+
+    private final Table brandCategories = new Table(Subject.BRAND_CATEGORY, "brand_id", "category_id", this::scanBrandCategories);
+
+    private final Table brandItems = new Table(Subject.BRAND_ITEM, "brand_id", "item_id", this::scanBrandItems);
+
+    private final Table categoryItems = new Table(Subject.CATEGORY_ITEM, "category_id", "item_id", this::scanCategoryItems);
+
+    private final Table[] tables = {brandCategories, brandItems, categoryItems};
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void onStartup() {
+        rebuildIfStale();
+    }
+
+    /**
+     * @return true when the loaded links show that the brand has no categories; false when it has some, or when its
+     * links are not loaded or changed since.
+     */
+    public boolean brandHasNoCategories(int brandId) {
+        RelationIndex categories = brandCategories.indexFor(brandId);
+        return categories != null && categories.count(brandId) == 0;
+    }
+
+    /**
+     * @return true when the loaded links show that the brand has no items in the category; false when it has some,
+     * or when the links of either are not loaded or changed since.
+     */
+    public boolean brandHasNoItemsInCategory(int brandId, int categoryId) {
+        RelationIndex items = brandItems.indexFor(brandId);
+        RelationIndex categories = categoryItems.indexFor(categoryId);
+        if (items == null || categories == null) {
+            return false;
+        }
+        int brand = items.find(brandId);
+        int category = categories.find(categoryId);
+        return brand < 0 || category < 0
+                || !SortedInts.intersects(items.targets(), items.start(brand), items.end(brand),
+                categories.targets(), categories.start(category), categories.end(category));
+    }
+
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        for (Table table : tables) {
+            if (table.subject == event.getSubject() && event.getId() != null) {
+                table.changed(event.getId());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${myntra.catalog.relations.rebuild-check-ms:5000}")
+    public synchronized void rebuildIfStale() {
+        if (!enabled) {
+            return;
+        }
+        for (Table table : tables) {
+            if (table.isStale()) {
+                reload(table);
+            }
+        }
+    }
+
+    @ManagedOperation(description = "Reload all catalog link tables now")
+    public synchronized void rebuild() {
+        for (Table table : tables) {
+            reload(table);
+        }
+    }
+
+    /**
+     * This method reloads one link table on the catalog pool and swaps in its new index. The ids marked before the
+     * load started are then cleared; ids marked while loading stay marked until the next reload.
+     */
+    private void reload(Table table) {
+        // Every link change committed before the feed's start horizon is in the load; every later one is marked.
+        catalogChangePoller.getStartHorizon();
+        long seen = table.changes.get();
+        long started = System.currentTimeMillis();
+        Workload previous = WorkloadContext.enter(Workload.CATALOG);
+        try {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setReadOnly(true);
+            Links links = new Links(table.sourceColumn, table.targetColumn);
+            transaction.execute(status -> {
+                table.scan.accept(links);
+                return null;
+            });
+            RelationIndex index = RelationIndex.build(links.sources, links.targets, links.count);
+            table.loaded(index, seen);
+            LOG.info("Catalog relations loaded {} {} links in {} ms", index.links(), table.subject.getTableName(),
+                    System.currentTimeMillis() - started);
+        } catch (RuntimeException e) {
+            LOG.error("Catalog relations reload of {} failed; its lookups go to the database", table.subject.getTableName(), e);
+        } finally {
+            WorkloadContext.restore(previous);
+        }
+    }
+
+    private void scanBrandCategories(RowCallbackHandler handler) {
+        brandDao.scanBrandCategories(handler);
+    }
+
+    private void scanBrandItems(RowCallbackHandler handler) {
+        brandDao.scanBrandItems(handler);
+    }
+
+    private void scanCategoryItems(RowCallbackHandler handler) {
+        itemDao.scanItemCategories(handler);
+    }
+
+    @ManagedAttribute(description = "Whether every link table is loaded")
+    public boolean isLoaded() {
+        for (Table table : tables) {
+            if (table.index == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @ManagedAttribute(description = "Brands and categories whose links changed since their table was loaded")
+    public int getChangedIds() {
+        int changed = 0;
+        for (Table table : tables) {
+            changed += table.changed.size();
+        }
+        return changed;
+    }
+
+    /**
+     * One link table indexed from its first id column to its second, with the first-column ids whose links changed
+     * since the load, each with the change count at which it was last marked.
+     */
+    private static final class Table {
+
+        private final Subject subject;
+
+        private final String sourceColumn;
+
+        private final String targetColumn;
+
+        private final Consumer<RowCallbackHandler> scan;
+
+        private final AtomicLong changes = new AtomicLong();
+
+        private final Map<Integer, Long> changed = new ConcurrentHashMap<>();
+
+        private volatile RelationIndex index;
+
+        private volatile long loadedChanges = -1;
+
+        private Table(Subject subject, String sourceColumn, String targetColumn, Consumer<RowCallbackHandler> scan) {
+            this.subject = subject;
+            this.sourceColumn = sourceColumn;
+            this.targetColumn = targetColumn;
+            this.scan = scan;
+        }
+
+        private void changed(int source) {
+            changed.merge(source, changes.incrementAndGet(), Math::max);
+        }
+
+        private boolean isStale() {
+            return loadedChanges != changes.get();
+        }
+
+        /**
+         * Publishes the index before unmarking the ids it covers, so a lookup that finds its id unmarked reads this
+         * index or a later one.
+         */
+        private void loaded(RelationIndex loaded, long seen) {
+            index = loaded;
+            loadedChanges = seen;
+            for (Map.Entry<Integer, Long> entry : changed.entrySet()) {
+                if (entry.getValue() <= seen) {
+                    changed.remove(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+
+        /**
+         * @return the index, or null when the table is not loaded or the links of the source changed since.
+         */
+        private RelationIndex indexFor(int source) {
+            if (changed.containsKey(source)) {
+                return null;
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Growable pair of id columns filled while scanning one link table.
+     */
+    private static final class Links implements RowCallbackHandler {
+
+        private final String sourceColumn;
+
+        private final String targetColumn;
+
+        private int[] sources = new int[1024];
+
+        private int[] targets = new int[1024];
+
+        private int count;
+
+        private Links(String sourceColumn, String targetColumn) {
+            this.sourceColumn = sourceColumn;
+            this.targetColumn = targetColumn;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            if (count == sources.length) {
+                sources = Arrays.copyOf(sources, count * 2);
+                targets = Arrays.copyOf(targets, count * 2);
+            }
+            sources[count] = rs.getInt(sourceColumn);
+            targets[count++] = rs.getInt(targetColumn);
+        }
+    }
+}
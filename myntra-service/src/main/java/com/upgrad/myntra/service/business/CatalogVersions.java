@@ -0,0 +1,227 @@
+package com.upgrad.myntra.service.business;
+
+import com.upgrad.myntra.service.dao.CatalogChangeDao;
+import com.upgrad.myntra.service.entity.CatalogChangeEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory versions of the catalog responses, advanced by the {@link CatalogChangeEvent} feed, from which the
+ * catalog controllers derive strong ETags and Last-Modified dates without touching the database.
+ * <p>
+ * A brand detail response depends on the brand's own row and links, versioned per brand, and on the item and
+ * category rows it lists, which a change event cannot attribute to a brand without a query; those share one
+ * version that is part of every brand's version. The category list depends on the category rows only.
+ * <p>
+ * A version is the last CATALOG_CHANGE row that touched the response's data. Every instance applies the feed in the
+ * same order, so validators match across instances and restarts. A version not advanced since startup is read once
+ * from the changes recorded before the poller's start horizon; if those have been purged, the oldest change still
+ * retained stands in for them, which is newer than any version handed out before the purge. Listeners evicting
+ * cached catalog data run before this one: a new version must never be handed out while the old data can still be
+ * read.
+ */
+@Component
+@ManagedResource(objectName = "com.upgrad.myntra:type=CatalogVersions")
+public class CatalogVersions {
+
+    /**
+     * The validators of one response: a strong ETag and the time of the last change, in milliseconds.
+     */
+    public static final class Stamp {
+
+        private final String eTag;
+
+        private final long lastModified;
+
+        private Stamp(String eTag, long lastModified) {
+            this.eTag = eTag;
+            this.lastModified = lastModified;
+        }
+
+        public String getETag() {
+            return eTag;
+        }
+
+        public long getLastModified() {
+            return lastModified;
+        }
+    }
+
+    private static final class Version {
+
+        // The version of data no change has been recorded for yet.
+        private static final Version NONE = new Version(0, 0);
+
+        private final long change;
+
+        private final long modifiedAt;
+
+        private Version(long change, long modifiedAt) {
+            this.change = change;
+            this.modifiedAt = modifiedAt;
+        }
+
+        private static Version of(CatalogChangeEvent event) {
+            return new Version(event.getSequence(), event.getChangedAt());
+        }
+
+        private static Version of(CatalogChangeEntity change) {
+            return new Version(change.getId(), Timestamp.valueOf(change.getChangedAt()).getTime());
+        }
+    }
+
+    private static final List<String> BRAND_TABLES = tableNames(CatalogChangeEvent.Subject.BRAND,
+            CatalogChangeEvent.Subject.BRAND_ITEM, CatalogChangeEvent.Subject.BRAND_CATEGORY);
+
+    private static final List<String> LISTED_ROW_TABLES = tableNames(CatalogChangeEvent.Subject.ITEM,
+            CatalogChangeEvent.Subject.CATEGORY, CatalogChangeEvent.Subject.CATEGORY_ITEM);
+
+    private static final List<String> CATEGORY_TABLES = tableNames(CatalogChangeEvent.Subject.CATEGORY);
+
+    @Autowired
+    private CatalogChangeDao catalogChangeDao;
+
+    @Autowired
+    private CatalogChangePoller catalogChangePoller;
+
+    private final Map<UUID, Integer> brandIds = new ConcurrentHashMap<>();
+
+    private final Map<Integer, Version> brands = new ConcurrentHashMap<>();
+
+    // Null until read from the database or advanced by a change.
+    private volatile Version listedRows;
+
+    private volatile Version categoryList;
+
+    /**
+     * @return the validators of the brand detail response, or null while the brand's id is not known yet; the
+     * caller then loads the brand and passes its id to {@link #registerBrand}.
+     */
+    public Stamp brandStamp(UUID brandUuid) {
+        Integer brandId = brandIds.get(brandUuid);
+        Version brand = brandId == null ? null : brands.get(brandId);
+        if (brand == null) {
+            return null;
+        }
+        Version rows = listedRows();
+        return new Stamp(eTag("b" + brand.change + "." + rows.change), Math.max(brand.modifiedAt, rows.modifiedAt));
+    }
+
+    /**
+     * This method reads the brand's version from the database unless a change already advanced it.
+     *
+     * @return the validators of the brand detail response.
+     */
+    public Stamp registerBrand(UUID brandUuid, Integer brandId) {
+        if (!brands.containsKey(brandId)) {
+            // A change applied meanwhile is newer than anything recorded before the start horizon.
+            brands.putIfAbsent(brandId, recordedVersion(BRAND_TABLES, brandId));
+        }
+        brandIds.put(brandUuid, brandId);
+        return brandStamp(brandUuid);
+    }
+
+    /**
+     * @return the validators of the list of all categories.
+     */
+    public Stamp categoryListStamp() {
+        Version list = categoryList;
+        if (list == null) {
+            synchronized (this) {
+                if (categoryList == null) {
+                    categoryList = recordedVersion(CATEGORY_TABLES, null);
+                }
+                list = categoryList;
+            }
+        }
+        return new Stamp(eTag("c" + list.change), list.modifiedAt);
+    }
+
+    @EventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        Version version = Version.of(event);
+        switch (event.getSubject()) {
+            case BRAND:
+                if (event.getChange() == CatalogChangeEvent.Change.REMOVED) {
+                    brandIds.remove(event.getUuid());
+                } else {
+                    brandIds.put(event.getUuid(), event.getId());
+                }
+                brands.put(event.getId(), version);
+                break;
+            case BRAND_ITEM:
+            case BRAND_CATEGORY:
+                brands.put(event.getBrandId(), version);
+                break;
+            case CATEGORY:
+                synchronized (this) {
+                    categoryList = version;
+                    listedRows = version;
+                }
+                break;
+            case ITEM:
+            case CATEGORY_ITEM:
+                synchronized (this) {
+                    listedRows = version;
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    private Version listedRows() {
+        Version rows = listedRows;
+        if (rows == null) {
+            synchronized (this) {
+                if (listedRows == null) {
+                    listedRows = recordedVersion(LISTED_ROW_TABLES, null);
+                }
+                rows = listedRows;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * @return the version of the data whose changes are recorded against the given tables, and the given entity
+     * unless it is null, as it stood at the poller's start horizon.
+     */
+    private Version recordedVersion(List<String> tableNames, Integer entityId) {
+        CatalogChangeEntity change = catalogChangeDao.getLatestChange(tableNames, entityId, catalogChangePoller.getStartHorizon());
+        if (change == null) {
+            change = catalogChangeDao.getOldestChange();
+        }
+        return change == null ? Version.NONE : Version.of(change);
+    }
+
+    @ManagedAttribute(description = "Brands whose detail response can be answered with 304 Not Modified")
+    public int getKnownBrands() {
+        return brandIds.size();
+    }
+
+    private static String eTag(String version) {
+        return "\"" + version + "\"";
+    }
+
+    private static List<String> tableNames(CatalogChangeEvent.Subject... subjects) {
+        List<String> tableNames = new ArrayList<>(subjects.length);
+        for (CatalogChangeEvent.Subject subject : subjects) {
+            tableNames.add(subject.getTableName());
+        }
+        return tableNames;
+    }
+}
@@ -7,6 +7,7 @@ import com.upgrad.myntra.service.entity.CategoryEntity;
 import com.upgrad.myntra.service.exception.CategoryNotFoundException;
 
 import java.util.List;
+import java.util.UUID;
 
 /*
  * This CategoryService interface gives the list of all the service that exist in the category service implementation class.
@@ -14,7 +15,7 @@ import java.util.List;
  */
 public interface CategoryService {
 
-    CategoryEntity getCategoryById(String categoryId) throws CategoryNotFoundException;
+    CategoryEntity getCategoryById(UUID categoryId) throws CategoryNotFoundException;
     List<CategoryEntity> getAllCategoriesOrderedByName();
-    List<CategoryEntity> getCategoriesByBrand(String brandId);
+    List<CategoryEntity> getCategoriesByBrand(Integer brandId);
 }
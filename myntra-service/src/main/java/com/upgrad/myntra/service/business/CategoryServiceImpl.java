@@ -1,30 +1,39 @@
 package com.upgrad.myntra.service.business;
 
 
+import com.upgrad.myntra.service.common.Workload;
+import com.upgrad.myntra.service.common.WorkloadPool;
 import com.upgrad.myntra.service.dao.CategoryDao;
 import com.upgrad.myntra.service.entity.CategoryEntity;
 import com.upgrad.myntra.service.exception.CategoryNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.UUID;
 
 @Service
+@WorkloadPool(Workload.CATALOG)
 public class CategoryServiceImpl implements CategoryService{
 
     @Autowired
     private CategoryDao categoryDao;
 
+    @Autowired
+    private CatalogRelations catalogRelations;
+
     /**
      * The method implements the business logic for getting category by its id endpoint.
      */
     @Override
-    public CategoryEntity getCategoryById(String categoryId) throws CategoryNotFoundException{
-        if(categoryId.length()==0)
+    public CategoryEntity getCategoryById(UUID categoryId) throws CategoryNotFoundException{
+        if(categoryId==null)
             throw new CategoryNotFoundException("CNF-001","Category id field should not be empty");
-        if(categoryDao.getCategoryById(categoryId)==null)
+        CategoryEntity categoryEntity = categoryDao.getCategoryById(categoryId);
+        if(categoryEntity==null)
             throw new CategoryNotFoundException("CNF-002","No category by this id");
-        return categoryDao.getCategoryById(categoryId);
+        return categoryEntity;
     }
 
     /**
@@ -37,10 +46,13 @@ public class CategoryServiceImpl implements CategoryService{
     }
 
     /**
-     * The method implements the business logic for getting categories for any particular brand.
+     * The method implements the business logic for getting categories for any particular brand, by the brand's id.
+     * A brand without categories is answered from the catalog relations without a query.
      */
     @Override
-    public List<CategoryEntity> getCategoriesByBrand(String brandId)  {
+    public List<CategoryEntity> getCategoriesByBrand(Integer brandId)  {
+        if (brandId != null && catalogRelations.brandHasNoCategories(brandId))
+            return Collections.emptyList();
         return categoryDao.getCategoriesByBrand(brandId);
     }
 }
@@ -0,0 +1,162 @@
+package com.upgrad.myntra.service.business;
+
+import com.upgrad.myntra.service.dao.CustomerDao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over the contact numbers registered in CUSTOMER.
+ * The filter is rebuilt from the database at startup and then learns the numbers this instance registers or looks
+ * up. Numbers registered on other instances are missing from it, so a negative answer is only definite for this
+ * instance's own writes: signup uses it to skip the duplicate lookup (the unique constraint on contact_number still
+ * rejects a number registered elsewhere), while login always confirms against the database. Until the first build
+ * completes every number is reported as possibly present.
+ */
+@Component
+public class ContactNumberFilter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ContactNumberFilter.class);
+
+    private static final int LOAD_PAGE_SIZE = 10000;
+
+    @Autowired
+    private CustomerDao customerDao;
+
+    @Value("${myntra.customer.contact-filter.expected-insertions:1000000}")
+    private long expectedInsertions;
+
+    @Value("${myntra.customer.contact-filter.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    private volatile Bits bits;
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void onStartup() {
+        if (bits == null) {
+            rebuild();
+        }
+    }
+
+    /**
+     * This method rebuilds the filter from every contact number in the database.
+     */
+    public synchronized void rebuild() {
+        Bits rebuilt = new Bits(expectedInsertions, falsePositiveRate);
+        int loaded = 0;
+        Integer lastId = 0;
+        List<Object[]> page;
+        do {
+            page = customerDao.getContactNumbersAfter(lastId, LOAD_PAGE_SIZE);
+            for (Object[] row : page) {
+                lastId = (Integer) row[0];
+                rebuilt.put((String) row[1]);
+            }
+            loaded += page.size();
+        } while (page.size() == LOAD_PAGE_SIZE);
+        bits = rebuilt;
+        LOG.info("Contact number filter built from {} customers", loaded);
+        if (loaded > expectedInsertions) {
+            LOG.warn("Contact number filter holds {} numbers but is sized for {}; raise expected-insertions", loaded, expectedInsertions);
+        }
+    }
+
+    /**
+     * This method records a contact number known to be registered.
+     */
+    public void add(final String contactNumber) {
+        Bits current = bits;
+        if (current != null && contactNumber != null) {
+            current.put(contactNumber);
+        }
+    }
+
+    /**
+     * This method tells whether the contact number might be registered.
+     *
+     * @return false when the number was not registered by the time of the last build nor through this instance since.
+     */
+    public boolean mightContain(final String contactNumber) {
+        Bits current = bits;
+        return current == null || contactNumber == null || current.mightContain(contactNumber);
+    }
+
+    /**
+     * Bit array shared between threads; bits are only ever set, with compare-and-set on the containing word.
+     */
+    private static final class Bits {
+        private final AtomicLongArray words;
+        private final long bitCount;
+        private final int hashCount;
+
+        private Bits(final long expected, final double fpp) {
+            long n = Math.max(1L, expected);
+            long m = (long) Math.ceil(-n * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+            int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, (m + 63) >>> 6);
+            this.words = new AtomicLongArray(wordCount);
+            this.bitCount = (long) wordCount << 6;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+        }
+
+        private void put(final String value) {
+            long hash = hash(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                long bit = index(h1 + i * h2);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current;
+                do {
+                    current = words.get(word);
+                    if ((current & mask) != 0) {
+                        break;
+                    }
+                } while (!words.compareAndSet(word, current, current | mask));
+            }
+        }
+
+        private boolean mightContain(final String value) {
+            long hash = hash(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                long bit = index(h1 + i * h2);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private long index(final int combined) {
+            return (combined & 0x7FFFFFFFL) % bitCount;
+        }
+
+        /**
+         * 64 bit FNV-1a over the UTF-8 bytes followed by a murmur finaliser, split into the two halves used for
+         * double hashing.
+         */
+        private static long hash(final String value) {
+            long h = 0xcbf29ce484222325L;
+            for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+                h ^= (b & 0xff);
+                h *= 0x100000001b3L;
+            }
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb93fe1a85ec3L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.upgrad.myntra.service.business;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedOperationParameter;
+import org.springframework.jmx.export.annotation.ManagedOperationParameters;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Operator entry point of the bulk customer import: the "start" JMX operation imports a partner file that is on this
+ * server's disk, in the background, one file at a time. Starting it again on the same file after a failure or a
+ * restart resumes after the file's checkpoint.
+ */
+@Component
+@ManagedResource(objectName = "com.upgrad.myntra:type=CustomerImport")
+public class CustomerImportJob {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CustomerImportJob.class);
+
+    @Autowired
+    private CustomerImportService customerImportService;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "customer-import");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private String running;
+
+    private volatile String lastResult = "No import has run since startup";
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * This method starts importing the file unless an import is already running.
+     *
+     * @return what was started, or why nothing was.
+     */
+    @ManagedOperation(description = "Import customers from a CSV or NDJSON file on this server; a rerun on the same file resumes after its checkpoint")
+    @ManagedOperationParameters({
+            @ManagedOperationParameter(name = "path", description = "Absolute path of the file"),
+            @ManagedOperationParameter(name = "format", description = "CSV or NDJSON")})
+    public synchronized String start(String path, String format) {
+        if (running != null) {
+            return "An import of " + running + " is running";
+        }
+        final CustomerImportService.Format parsedFormat;
+        try {
+            parsedFormat = CustomerImportService.Format.valueOf(format.trim().toUpperCase());
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return "Unknown format " + format + "; use CSV or NDJSON";
+        }
+        final Path source = Paths.get(path);
+        if (!Files.isReadable(source)) {
+            return "Cannot read " + path;
+        }
+        running = path;
+        executor.execute(() -> run(source, parsedFormat));
+        return "Started importing " + path;
+    }
+
+    private void run(Path source, CustomerImportService.Format format) {
+        String result;
+        try {
+            CustomerImportReport report = customerImportService.importCustomers(source, format);
+            result = source + ": resumed after line " + report.getResumedAfterLine() + ", read " + report.getRowsRead()
+                    + ", imported " + report.getRowsImported() + ", rejected " + report.getRowsRejected()
+                    + " (listed in " + source.getFileName() + ".errors.csv)";
+            LOG.info("Customer import of {}", result);
+        } catch (Exception e) {
+            result = source + ": failed with " + e + "; start it again to resume after the checkpoint";
+            LOG.error("Customer import of {} failed", source, e);
+        }
+        synchronized (this) {
+            lastResult = result;
+            running = null;
+        }
+    }
+
+    @ManagedAttribute(description = "Path of the file being imported, or null")
+    public synchronized String getRunning() {
+        return running;
+    }
+
+    @ManagedAttribute(description = "Outcome of the last finished import")
+    public String getLastResult() {
+        return lastResult;
+    }
+}
@@ -0,0 +1,157 @@
+package com.upgrad.myntra.service.business;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streams customer rows out of a CSV or NDJSON import file one line at a time.
+ * Every row comes back as a field map keyed by the signup request field names; malformed lines come back with
+ * a parse error instead of failing the whole import.
+ */
+class CustomerImportReader implements Closeable {
+
+    static final String FIRST_NAME = "first_name";
+    static final String LAST_NAME = "last_name";
+    static final String EMAIL_ADDRESS = "email_address";
+    static final String CONTACT_NUMBER = "contact_number";
+    static final String PASSWORD = "password";
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final BufferedReader reader;
+
+    private final CustomerImportService.Format format;
+
+    private String[] header;
+
+    private long lineNumber;
+
+    CustomerImportReader(BufferedReader reader, CustomerImportService.Format format) {
+        this.reader = reader;
+        this.format = format;
+    }
+
+    /**
+     * This method reads the next non-blank row.
+     *
+     * @return the row, or null at the end of the file.
+     */
+    Row next() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            if (format == CustomerImportService.Format.CSV && header == null) {
+                header = parseCsvLine(line).toArray(new String[0]);
+                for (int i = 0; i < header.length; i++) {
+                    header[i] = header[i].trim().toLowerCase();
+                }
+                continue;
+            }
+            try {
+                return new Row(lineNumber, format == CustomerImportService.Format.CSV ? csvFields(line) : jsonFields(line), null);
+            } catch (IllegalArgumentException | IOException e) {
+                return new Row(lineNumber, null, e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    private Map<String, String> csvFields(String line) {
+        List<String> values = parseCsvLine(line);
+        if (values.size() != header.length) {
+            throw new IllegalArgumentException("Expected " + header.length + " columns but found " + values.size());
+        }
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 0; i < header.length; i++) {
+            fields.put(header[i], values.get(i));
+        }
+        return fields;
+    }
+
+    private static Map<String, String> jsonFields(String line) throws IOException {
+        JsonNode node = OBJECT_MAPPER.readTree(line);
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("Line is not a JSON object");
+        }
+        Map<String, String> fields = new HashMap<>();
+        node.fields().forEachRemaining(field -> fields.put(field.getKey().toLowerCase(), field.getValue().isNull() ? null : field.getValue().asText()));
+        return fields;
+    }
+
+    /**
+     * Splits one CSV line, honouring double quoted values with "" as an escaped quote.
+     */
+    private static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted value");
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    static class Row {
+
+        private final long line;
+
+        private final Map<String, String> fields;
+
+        private final String parseError;
+
+        Row(long line, Map<String, String> fields, String parseError) {
+            this.line = line;
+            this.fields = fields;
+            this.parseError = parseError;
+        }
+
+        long getLine() {
+            return line;
+        }
+
+        String get(String field) {
+            return fields.get(field);
+        }
+
+        String getParseError() {
+            return parseError;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.upgrad.myntra.service.business;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of one bulk customer import run: row counts and the error of every rejected row.
+ */
+public class CustomerImportReport {
+
+    private long rowsRead;
+
+    private long rowsImported;
+
+    private long rowsSkipped;
+
+    private long resumedAfterLine;
+
+    private final List<RowError> errors = new ArrayList<>();
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public long getRowsImported() {
+        return rowsImported;
+    }
+
+    /**
+     * Rows at or before the checkpoint of an earlier run, which were not processed again.
+     */
+    public long getRowsSkipped() {
+        return rowsSkipped;
+    }
+
+    public long getResumedAfterLine() {
+        return resumedAfterLine;
+    }
+
+    public long getRowsRejected() {
+        return errors.size();
+    }
+
+    public List<RowError> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+
+    void rowRead() {
+        rowsRead++;
+    }
+
+    void rowsImported(long count) {
+        rowsImported += count;
+    }
+
+    void rowSkipped() {
+        rowsSkipped++;
+    }
+
+    void resumedAfter(long line) {
+        resumedAfterLine = line;
+    }
+
+    void reject(RowError error) {
+        errors.add(error);
+    }
+
+    /**
+     * A rejected row: its line number in the source file and the signup error code it failed with.
+     */
+    public static class RowError {
+
+        private final long line;
+
+        private final String code;
+
+        private final String message;
+
+        public RowError(long line, String code, String message) {
+            this.line = line;
+            this.code = code;
+            this.message = message;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        public String getCode() {
+            return code;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
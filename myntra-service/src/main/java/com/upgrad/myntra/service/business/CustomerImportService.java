@@ -0,0 +1,20 @@
+package com.upgrad.myntra.service.business;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/*
+ * This CustomerImportService interface gives the list of all the service that exist in the customer import service implementation class.
+ * Partner onboarding jobs will be calling the service methods by this interface.
+ */
+public interface CustomerImportService {
+
+    enum Format {
+        /** Comma separated rows with a header line: first_name,last_name,email_address,contact_number,password */
+        CSV,
+        /** One JSON object per line with the same field names as the CSV header. */
+        NDJSON
+    }
+
+    CustomerImportReport importCustomers(Path source, Format format) throws IOException;
+}
@@ -0,0 +1,292 @@
+package com.upgrad.myntra.service.business;
+
+import com.upgrad.myntra.service.common.Workload;
+import com.upgrad.myntra.service.common.WorkloadPool;
+import com.upgrad.myntra.service.dao.CustomerDao;
+import com.upgrad.myntra.service.entity.CustomerEntity;
+import com.upgrad.myntra.service.exception.SignUpRestrictedException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Bulk customer import. Rows are streamed from the file in chunks; each chunk is validated with the signup rules,
+ * its passwords are hashed in parallel on a dedicated fork-join pool and it is inserted as one JDBC batch.
+ *
+ * After every committed chunk the last processed line is written to "&lt;source&gt;.checkpoint", and rejected rows
+ * are appended to "&lt;source&gt;.errors.csv". Running the import again on the same file resumes after the checkpoint.
+ * <p>
+ * A crash between a chunk's insert and its checkpoint replays that chunk on resume. The checkpoint carries a run id
+ * from which the uuid of every imported row is derived, so a replayed row whose contact number is already taken by
+ * the uuid of its own line counts as imported, not as a duplicate. The error file is cut back to the lines up to
+ * the checkpoint before resuming, so replayed rejections are not recorded twice.
+ */
+@Service
+@WorkloadPool(Workload.WRITE)
+public class CustomerImportServiceImpl implements CustomerImportService {
+
+    private static final String CHECKPOINT_SUFFIX = ".checkpoint";
+    private static final String ERRORS_SUFFIX = ".errors.csv";
+
+    @Autowired
+    private CustomerDao customerDao;
+
+    @Autowired
+    private CustomerValidator customerValidator;
+
+    @Autowired
+    private PasswordCryptographyProvider passwordCryptographyProvider;
+
+    @Autowired
+    private ContactNumberFilter contactNumberFilter;
+
+    @Value("${myntra.customer.import.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${myntra.customer.import.hashing-parallelism:0}")
+    private int hashingParallelism;
+
+    private ForkJoinPool hashingPool;
+
+    @PostConstruct
+    public void init() {
+        hashingPool = new ForkJoinPool(hashingParallelism > 0 ? hashingParallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashingPool.shutdown();
+    }
+
+    /**
+     * The method implements the business logic for importing a partner customer file.
+     */
+    @Override
+    public CustomerImportReport importCustomers(Path source, Format format) throws IOException {
+        CustomerImportReport report = new CustomerImportReport();
+        Path checkpoint = source.resolveSibling(source.getFileName() + CHECKPOINT_SUFFIX);
+        Path errors = source.resolveSibling(source.getFileName() + ERRORS_SUFFIX);
+        Checkpoint resumeFrom = readCheckpoint(checkpoint);
+        long resumeAfter = resumeFrom.line;
+        String runId = resumeFrom.runId;
+        report.resumedAfter(resumeAfter);
+        if (resumeAfter == 0) {
+            // The run id has to be durable before the first chunk derives uuids from it.
+            writeCheckpoint(checkpoint, new Checkpoint(0, runId));
+        }
+
+        try (CustomerImportReader reader = new CustomerImportReader(Files.newBufferedReader(source, StandardCharsets.UTF_8), format);
+             BufferedWriter errorWriter = openErrorWriter(errors, resumeAfter)) {
+            List<PendingRow> chunk = new ArrayList<>(batchSize);
+            CustomerImportReader.Row row;
+            long lastLine = resumeAfter;
+            while ((row = reader.next()) != null) {
+                if (row.getLine() <= resumeAfter) {
+                    report.rowSkipped();
+                    continue;
+                }
+                report.rowRead();
+                lastLine = row.getLine();
+                PendingRow pending = toPendingRow(row, runId, report, errorWriter);
+                if (pending != null) {
+                    chunk.add(pending);
+                }
+                if (chunk.size() == batchSize) {
+                    importChunk(chunk, report, errorWriter);
+                    commitCheckpoint(checkpoint, new Checkpoint(lastLine, runId), errorWriter);
+                    chunk.clear();
+                }
+            }
+            importChunk(chunk, report, errorWriter);
+            commitCheckpoint(checkpoint, new Checkpoint(lastLine, runId), errorWriter);
+        }
+        return report;
+    }
+
+    private PendingRow toPendingRow(CustomerImportReader.Row row, String runId, CustomerImportReport report, BufferedWriter errorWriter) throws IOException {
+        if (row.getParseError() != null) {
+            reject(report, errorWriter, new CustomerImportReport.RowError(row.getLine(), "IMP-001", row.getParseError()));
+            return null;
+        }
+        CustomerEntity customerEntity = new CustomerEntity(rowUuid(runId, row.getLine()), row.get(CustomerImportReader.FIRST_NAME),
+                row.get(CustomerImportReader.LAST_NAME), row.get(CustomerImportReader.EMAIL_ADDRESS),
+                row.get(CustomerImportReader.CONTACT_NUMBER), row.get(CustomerImportReader.PASSWORD));
+        try {
+            customerValidator.validate(customerEntity);
+        } catch (SignUpRestrictedException e) {
+            reject(report, errorWriter, new CustomerImportReport.RowError(row.getLine(), e.getCode(), e.getErrorMessage()));
+            return null;
+        }
+        return new PendingRow(row.getLine(), customerEntity);
+    }
+
+    private void importChunk(List<PendingRow> chunk, CustomerImportReport report, BufferedWriter errorWriter) throws IOException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        hashPasswords(chunk);
+        List<CustomerEntity> customers = new ArrayList<>(chunk.size());
+        for (PendingRow pending : chunk) {
+            customers.add(pending.customer);
+        }
+        int[] inserted = customerDao.saveCustomers(customers);
+        List<String> conflicts = new ArrayList<>();
+        for (int i = 0; i < inserted.length; i++) {
+            if (inserted[i] == 0) {
+                conflicts.add(chunk.get(i).customer.getContactNumber());
+            }
+        }
+        Map<String, String> registeredUuids = customerDao.getUuidsByContactNumbers(conflicts);
+        long importedCount = 0;
+        for (int i = 0; i < inserted.length; i++) {
+            PendingRow pending = chunk.get(i);
+            // A replayed row finds the number registered under its own uuid by the run that crashed.
+            if (inserted[i] == 0 && !pending.customer.getUuid().equals(registeredUuids.get(pending.customer.getContactNumber()))) {
+                reject(report, errorWriter, new CustomerImportReport.RowError(pending.line, "SGR-001", "This contact number is already registered! Try other contact number."));
+            } else {
+                contactNumberFilter.add(pending.customer.getContactNumber());
+                importedCount++;
+            }
+        }
+        report.rowsImported(importedCount);
+    }
+
+    private void hashPasswords(List<PendingRow> chunk) throws IOException {
+        try {
+            hashingPool.submit(() -> chunk.parallelStream().forEach(pending -> {
+                String[] encrypted = passwordCryptographyProvider.encrypt(pending.customer.getPassword());
+                pending.customer.setPassword(encrypted[1]);
+                pending.customer.setSalt(encrypted[0]);
+                pending.customer.setHashAlgorithm(passwordCryptographyProvider.getAlgorithm());
+                pending.customer.setHashIterations(passwordCryptographyProvider.getIterations());
+                pending.customer.setHashKeyLength(passwordCryptographyProvider.getKeyLength());
+            })).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Customer import interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private static void reject(CustomerImportReport report, BufferedWriter errorWriter, CustomerImportReport.RowError error) throws IOException {
+        report.reject(error);
+        errorWriter.write(error.getLine() + "," + error.getCode() + ",\"" + error.getMessage().replace("\"", "\"\"") + "\"");
+        errorWriter.newLine();
+    }
+
+    /**
+     * The uuid of the customer imported from the line in the run, the same whenever the line is replayed.
+     */
+    private static String rowUuid(String runId, long line) {
+        return UUID.nameUUIDFromBytes((runId + ":" + line).getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    private static BufferedWriter openErrorWriter(Path errors, long resumeAfter) throws IOException {
+        if (resumeAfter > 0 && Files.exists(errors)) {
+            truncateErrors(errors, resumeAfter);
+            return Files.newBufferedWriter(errors, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        }
+        BufferedWriter writer = Files.newBufferedWriter(errors, StandardCharsets.UTF_8);
+        writer.write("line,code,message");
+        writer.newLine();
+        return writer;
+    }
+
+    /**
+     * Keeps the header and the errors of lines up to the checkpoint; later lines are about to be processed again.
+     */
+    private static void truncateErrors(Path errors, long resumeAfter) throws IOException {
+        List<String> kept = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(errors, StandardCharsets.UTF_8)) {
+            String line = reader.readLine();
+            if (line != null) {
+                kept.add(line);
+            }
+            while ((line = reader.readLine()) != null) {
+                int comma = line.indexOf(',');
+                try {
+                    if (comma > 0 && Long.parseLong(line.substring(0, comma)) <= resumeAfter) {
+                        kept.add(line);
+                    }
+                } catch (NumberFormatException e) {
+                    // A line torn by the crash is dropped with the replayed ones.
+                }
+            }
+        }
+        Path temp = errors.resolveSibling(errors.getFileName() + ".tmp");
+        Files.write(temp, kept, StandardCharsets.UTF_8);
+        Files.move(temp, errors, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads the last processed line and the run id; a missing checkpoint, or one written before run ids existed,
+     * starts a new run.
+     */
+    private static Checkpoint readCheckpoint(Path checkpoint) throws IOException {
+        if (!Files.exists(checkpoint)) {
+            return new Checkpoint(0, UUID.randomUUID().toString());
+        }
+        try (BufferedReader reader = Files.newBufferedReader(checkpoint, StandardCharsets.UTF_8)) {
+            String line = reader.readLine();
+            String runId = reader.readLine();
+            return new Checkpoint(line == null || line.trim().isEmpty() ? 0 : Long.parseLong(line.trim()),
+                    runId == null || runId.trim().isEmpty() ? UUID.randomUUID().toString() : runId.trim());
+        }
+    }
+
+    /**
+     * Flushes the errors of the chunk, then atomically replaces the checkpoint with the last processed line.
+     */
+    private static void commitCheckpoint(Path checkpoint, Checkpoint processed, BufferedWriter errorWriter) throws IOException {
+        errorWriter.flush();
+        writeCheckpoint(checkpoint, processed);
+    }
+
+    private static void writeCheckpoint(Path checkpoint, Checkpoint processed) throws IOException {
+        Path temp = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+        Files.write(temp, (processed.line + "\n" + processed.runId).getBytes(StandardCharsets.UTF_8));
+        Files.move(temp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static class Checkpoint {
+
+        private final long line;
+
+        private final String runId;
+
+        private Checkpoint(long line, String runId) {
+            this.line = line;
+            this.runId = runId;
+        }
+    }
+
+    private static class PendingRow {
+
+        private final long line;
+
+        private final CustomerEntity customer;
+
+        private PendingRow(long line, CustomerEntity customer) {
+            this.line = line;
+            this.customer = customer;
+        }
+    }
+}
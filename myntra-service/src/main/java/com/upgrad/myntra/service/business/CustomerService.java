@@ -17,6 +17,7 @@ public interface CustomerService {
 
     CustomerEntity saveCustomer(CustomerEntity customerEntity) throws SignUpRestrictedException;
     CustomerAuthEntity authenticate(String contactNumber, String password) throws AuthenticationFailedException;
+    CustomerAuthEntity authenticate(String contactNumber, String password, String clientAddress) throws AuthenticationFailedException;
     CustomerAuthEntity logout(String access_token) throws AuthorizationFailedException;
     void authorization(String access_token) throws AuthorizationFailedException;
     CustomerEntity updateCustomerPassword(String oldPassword, String newPassword, CustomerEntity customerEntity) throws
@@ -1,6 +1,8 @@
 package com.upgrad.myntra.service.business;
 
 
+import com.upgrad.myntra.service.common.Workload;
+import com.upgrad.myntra.service.common.WorkloadPool;
 import com.upgrad.myntra.service.dao.CustomerDao;
 import com.upgrad.myntra.service.entity.CustomerAuthEntity;
 import com.upgrad.myntra.service.entity.CustomerEntity;
@@ -9,16 +11,16 @@ import com.upgrad.myntra.service.exception.AuthorizationFailedException;
 import com.upgrad.myntra.service.exception.SignUpRestrictedException;
 import com.upgrad.myntra.service.exception.UpdateCustomerException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.ZonedDateTime;
 import java.util.UUID;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 @Service
+@WorkloadPool(Workload.AUTH)
 public class CustomerServiceImpl implements CustomerService {
 
     @Autowired
@@ -27,73 +29,107 @@ public class CustomerServiceImpl implements CustomerService {
     @Autowired
     private PasswordCryptographyProvider passwordCryptographyProvider;
 
+    @Autowired
+    private JwtSigningService jwtSigningService;
+
+    @Autowired
+    private LoginAttemptLimiter loginAttemptLimiter;
+
+    @Autowired
+    private ContactNumberFilter contactNumberFilter;
+
+    @Autowired
+    private CustomerValidator customerValidator;
+
     /**
      * The method implements the business logic for saving customer details endpoint.
      */
     @Override
-    @Transactional(propagation = Propagation.REQUIRED)
+    @WorkloadPool(Workload.WRITE)
+    @Transactional(propagation = Propagation.REQUIRED, rollbackFor = SignUpRestrictedException.class)
     public CustomerEntity saveCustomer(CustomerEntity customerEntity) throws SignUpRestrictedException {
-        if(customerDao.getCustomerByContactNumber(customerEntity.getContactNumber())==null)
+        if(isContactNumberRegistered(customerEntity.getContactNumber()))
             throw new SignUpRestrictedException("SGR-001","This contact number is already registered! Try other contact number.");
-        if(!colFilled(customerEntity))
-            throw new SignUpRestrictedException("SGR-005","Except last name all fields should be filled");
-        if(!isEmailValid(customerEntity.getEmail()))
-            throw new SignUpRestrictedException("SGR-002","Invalid email-id format!");
-        if(!isMobileCorrect(customerEntity.getContactNumber()))
-            throw new SignUpRestrictedException("SGR-003","Invalid contact number!");
-        if(!passwordValidation(customerEntity.getPassword()))
-            throw new SignUpRestrictedException("SGR-004","Weak password!");
-        String[] encrypted = passwordCryptographyProvider.encrypt(customerEntity.getPassword());
-        customerEntity.setPassword(encrypted[1]);
-        customerEntity.setSalt(encrypted[0]);
-
-        return customerDao.saveCustomer(customerEntity);
+        customerValidator.validate(customerEntity);
+        applyNewPasswordHash(customerEntity, customerEntity.getPassword());
+
+        CustomerEntity savedCustomer;
+        try {
+            savedCustomer = customerDao.saveCustomer(customerEntity);
+        } catch (DataIntegrityViolationException e) {
+            // The number was registered on another instance after this instance's filter was built.
+            contactNumberFilter.add(customerEntity.getContactNumber());
+            throw new SignUpRestrictedException("SGR-001","This contact number is already registered! Try other contact number.");
+        }
+        contactNumberFilter.add(savedCustomer.getContactNumber());
+        return savedCustomer;
     }
 
-    public boolean colFilled(CustomerEntity customerEntity){
-        if(customerEntity.getUuid().length()==0||customerEntity.getPassword().length()==0||customerEntity.getFirstName().length()==0||customerEntity.getEmail().length()==0||customerEntity.getContactNumber().length()==0)
-            return false;
-        else
-            return true;
-    }
-    public boolean passwordValidation(String pass){
-        if(pass.matches(".*[0-9]{1,}.*") && pass.matches(".*[#@$%&*!^]{1,}.*") &&pass.matches(".*[A-Z]{1,}.*")&& pass.length()>=8 )
-            return true;
-        else
-            return false;
-    }
-    public boolean isMobileCorrect(String mob){
-        Pattern p = Pattern.compile("[0-9]{10}");
-        if(mob.length()!=10)
-            return false;
-        return p.matcher(mob).matches();
+    /**
+     * Only numbers the contact number filter reports as possibly registered are looked up in the database; a number
+     * registered on another instance that the filter misses is rejected by the unique constraint on insert.
+     */
+    private boolean isContactNumberRegistered(String contactNumber) {
+        return contactNumberFilter.mightContain(contactNumber) && customerDao.getCustomerByContactNumber(contactNumber) != null;
     }
-    public boolean isEmailValid(String email){
 
-        String emailRegex = "^[a-zA-Z0-9_+&*-]+(?:\\."+
-                "[a-zA-Z0-9_+&*-]+)*@" +
-                "(?:[a-zA-Z0-9-]+\\.)+[a-z" +
-                "A-Z]{2,7}$";
+    /**
+     * Hashes the password with the parameters stored in the customer's hash record.
+     * Rows created before hash records were versioned fall back to the legacy parameters.
+     */
+    private String hashWithStoredParameters(String password, CustomerEntity customerEntity) {
+        String algorithm = customerEntity.getHashAlgorithm() == null ? PasswordCryptographyProvider.LEGACY_ALGORITHM : customerEntity.getHashAlgorithm();
+        int iterations = customerEntity.getHashIterations() == null ? PasswordCryptographyProvider.LEGACY_ITERATIONS : customerEntity.getHashIterations();
+        int keyLength = customerEntity.getHashKeyLength() == null ? PasswordCryptographyProvider.LEGACY_KEY_LENGTH : customerEntity.getHashKeyLength();
+        return PasswordCryptographyProvider.encrypt(password, customerEntity.getSalt(), algorithm, iterations, keyLength);
+    }
 
-        Pattern pat = Pattern.compile(emailRegex);
-        if (email == null)
-            return false;
-        return pat.matcher(email).matches();
+    /**
+     * Stores a fresh salt and hash of the password together with the current hash parameters.
+     */
+    private void applyNewPasswordHash(CustomerEntity customerEntity, String password) {
+        String[] encrypted = passwordCryptographyProvider.encrypt(password);
+        customerEntity.setPassword(encrypted[1]);
+        customerEntity.setSalt(encrypted[0]);
+        customerEntity.setHashAlgorithm(passwordCryptographyProvider.getAlgorithm());
+        customerEntity.setHashIterations(passwordCryptographyProvider.getIterations());
+        customerEntity.setHashKeyLength(passwordCryptographyProvider.getKeyLength());
     }
+
     /**
      * The method implements the business logic for signin endpoint.
      */
     @Transactional(propagation = Propagation.REQUIRED)
     public CustomerAuthEntity authenticate(String contactNumber, String password) throws AuthenticationFailedException {
+        return authenticate(contactNumber, password, null);
+    }
+
+    /**
+     * The method implements the business logic for signin endpoint, throttling failed attempts per account and per
+     * client address.
+     */
+    @Override
+    @Transactional(propagation = Propagation.REQUIRED)
+    public CustomerAuthEntity authenticate(String contactNumber, String password, String clientAddress) throws AuthenticationFailedException {
+        if (!loginAttemptLimiter.isAllowed(contactNumber, clientAddress)) {
+            throw new AuthenticationFailedException("AUTH-004", "Too many failed login attempts! Try again later.");
+        }
+        // The filter misses numbers registered on other instances, so it cannot turn a login away.
         CustomerEntity customerEntity = customerDao.getCustomerByContactNumber(contactNumber);
         if (customerEntity == null) {
+            loginAttemptLimiter.recordFailure(contactNumber, clientAddress);
             throw new AuthenticationFailedException("AUTH-001", "This contact number has not been registered!");
         } else {
+            contactNumberFilter.add(contactNumber);
 
-            String encryptedPassword = passwordCryptographyProvider.encrypt(password, customerEntity.getSalt());
+            String encryptedPassword = hashWithStoredParameters(password, customerEntity);
             if (customerEntity.getPassword().equals(encryptedPassword)) {
+                if (!passwordCryptographyProvider.isCurrent(customerEntity.getHashAlgorithm(), customerEntity.getHashIterations(), customerEntity.getHashKeyLength())) {
+                    // The raw password is only available here, so outdated hash records are upgraded on login.
+                    applyNewPasswordHash(customerEntity, password);
+                }
+                loginAttemptLimiter.recordSuccess(contactNumber);
 
-                JwtTokenProvider jwtTokenProvider = new JwtTokenProvider(encryptedPassword);
                 CustomerAuthEntity userAuthTokenEntity = new CustomerAuthEntity();
                 userAuthTokenEntity.setUuid(UUID.randomUUID().toString());
                 userAuthTokenEntity.setCustomer(customerEntity);
@@ -101,7 +137,7 @@ public class CustomerServiceImpl implements CustomerService {
                 ZonedDateTime expiry = now.plusHours(8);
                 userAuthTokenEntity.setLoginAt(now);
                 userAuthTokenEntity.setExpiresAt(expiry);
-                String accessToken = jwtTokenProvider.generateToken(customerEntity.getUuid(), now, expiry);
+                String accessToken = jwtSigningService.generateToken(customerEntity.getUuid(), now, expiry);
                 userAuthTokenEntity.setAccessToken(accessToken);
                 customerDao.updateCustomerAuth(userAuthTokenEntity);
                 customerDao.updateCustomer(customerEntity);
@@ -109,6 +145,7 @@ public class CustomerServiceImpl implements CustomerService {
                 return userAuthTokenEntity;
 
             } else {
+                loginAttemptLimiter.recordFailure(contactNumber, clientAddress);
                 throw new AuthenticationFailedException("AUTH-002", "Invalid Credentials");
 
             }
@@ -121,8 +158,8 @@ public class CustomerServiceImpl implements CustomerService {
     @Transactional(propagation = Propagation.REQUIRED)
     public CustomerAuthEntity logout(String access_token) throws AuthorizationFailedException {
 
-        CustomerAuthEntity customerAuthEntity = customerDao.getCustomerAuthByAccesstoken(access_token);
         authorization(access_token);
+        CustomerAuthEntity customerAuthEntity = customerDao.getCustomerAuthByAccesstoken(access_token);
         customerAuthEntity.setLogoutAt(ZonedDateTime.now());
         return customerDao.updateCustomerAuth(customerAuthEntity);
     }
@@ -131,18 +168,16 @@ public class CustomerServiceImpl implements CustomerService {
      * The method implements the business logic for updating customer password endpoint.
      */
     @Override
+    @WorkloadPool(Workload.WRITE)
     @Transactional(propagation = Propagation.REQUIRED)
     public CustomerEntity updateCustomerPassword(String oldPassword,String newPassword, CustomerEntity customerEntity) throws UpdateCustomerException {
-        final String encryptedOldPassword = PasswordCryptographyProvider.encrypt(oldPassword, customerEntity.getSalt());
-        String newpass=passwordCryptographyProvider.encrypt(newPassword,customerEntity.getSalt());
-        System.out.println("HOOOOOOOOOOOOOOOOOO "+customerEntity.getPassword()+" "+oldPassword);
         if(oldPassword.length()==0||newPassword.length()==0)
             throw new UpdateCustomerException("UCR-003","No field should be empty");
-        if(!passwordValidation(newPassword))
+        if(!customerValidator.passwordValidation(newPassword))
             throw new UpdateCustomerException("UCR-001","Weak password!");
-        if(!customerEntity.getPassword().equals(encryptedOldPassword))
+        if(!customerEntity.getPassword().equals(hashWithStoredParameters(oldPassword, customerEntity)))
             throw new UpdateCustomerException("UCR-004","Incorrect old password!");
-        customerEntity.setPassword(newpass);
+        applyNewPasswordHash(customerEntity, newPassword);
         customerDao.updateCustomer(customerEntity);
 
         return customerEntity;
@@ -151,10 +186,12 @@ public class CustomerServiceImpl implements CustomerService {
 
     /**
      * The method implements the business logic for checking authorization of any customer.
+     * The token's signature is verified first, so a forged or malformed token is rejected without a database lookup.
      */
     @Override
     public void authorization(String access_token) throws AuthorizationFailedException {
 
+        jwtSigningService.verify(access_token);
         CustomerAuthEntity customerAuthEntity = customerDao.getCustomerAuthByAccesstoken(access_token);
         if (customerAuthEntity == null) {
             throw new AuthorizationFailedException("AUTH-001", "Customer is not Logged in.");
@@ -0,0 +1,63 @@
+package com.upgrad.myntra.service.business;
+
+import com.upgrad.myntra.service.entity.CustomerEntity;
+import com.upgrad.myntra.service.exception.SignUpRestrictedException;
+import org.springframework.stereotype.Component;
+
+import java.util.regex.Pattern;
+
+/**
+ * Signup field rules shared by the signup endpoint and the bulk customer import.
+ */
+@Component
+public class CustomerValidator {
+
+    private static final Pattern MOBILE_PATTERN = Pattern.compile("[0-9]{10}");
+
+    private static final Pattern EMAIL_PATTERN = Pattern.compile("^[a-zA-Z0-9_+&*-]+(?:\\."+
+            "[a-zA-Z0-9_+&*-]+)*@" +
+            "(?:[a-zA-Z0-9-]+\\.)+[a-z" +
+            "A-Z]{2,7}$");
+
+    /**
+     * This method checks the customer details against the signup rules, in the order the signup endpoint reports
+     * them. Whether the contact number is already registered is checked by the caller.
+     */
+    public void validate(CustomerEntity customerEntity) throws SignUpRestrictedException {
+        if(!colFilled(customerEntity))
+            throw new SignUpRestrictedException("SGR-005","Except last name all fields should be filled");
+        if(!isEmailValid(customerEntity.getEmail()))
+            throw new SignUpRestrictedException("SGR-002","Invalid email-id format!");
+        if(!isMobileCorrect(customerEntity.getContactNumber()))
+            throw new SignUpRestrictedException("SGR-003","Invalid contact number!");
+        if(!passwordValidation(customerEntity.getPassword()))
+            throw new SignUpRestrictedException("SGR-004","Weak password!");
+    }
+
+    public boolean colFilled(CustomerEntity customerEntity){
+        if(isEmpty(customerEntity.getUuid())||isEmpty(customerEntity.getPassword())||isEmpty(customerEntity.getFirstName())||isEmpty(customerEntity.getEmail())||isEmpty(customerEntity.getContactNumber()))
+            return false;
+        else
+            return true;
+    }
+    public boolean passwordValidation(String pass){
+        if(pass.matches(".*[0-9]{1,}.*") && pass.matches(".*[#@$%&*!^]{1,}.*") &&pass.matches(".*[A-Z]{1,}.*")&& pass.length()>=8 )
+            return true;
+        else
+            return false;
+    }
+    public boolean isMobileCorrect(String mob){
+        if(mob.length()!=10)
+            return false;
+        return MOBILE_PATTERN.matcher(mob).matches();
+    }
+    public boolean isEmailValid(String email){
+        if (email == null)
+            return false;
+        return EMAIL_PATTERN.matcher(email).matches();
+    }
+
+    private static boolean isEmpty(String value) {
+        return value == null || value.length() == 0;
+    }
+}
@@ -3,6 +3,7 @@ package com.upgrad.myntra.service.business;
 
 
 import com.upgrad.myntra.service.entity.ItemEntity;
+import com.upgrad.myntra.service.exception.ItemSearchException;
 
 import java.util.List;
 
@@ -12,5 +13,8 @@ import java.util.List;
  */
 public interface ItemService {
 
-    List<ItemEntity> getItemsByCategoryAndBrand(String brandId, String categoryId);
+    List<ItemEntity> getItemsByCategoryAndBrand(Integer brandId, Integer categoryId);
+    List<ItemEntity> getItemsByCategoryAndPrice(Integer categoryId, Integer minPrice, Integer maxPrice, String sort, String cursor, Integer limit) throws ItemSearchException;
+    List<ItemEntity> getItemsByBrandAndPrice(Integer brandId, Integer minPrice, Integer maxPrice, String sort, String cursor, Integer limit) throws ItemSearchException;
+    String getNextPriceCursor(List<ItemEntity> page, Integer limit);
 }
@@ -2,25 +2,147 @@ package com.upgrad.myntra.service.business;
 
 
 
+import com.upgrad.myntra.service.common.Workload;
+import com.upgrad.myntra.service.common.WorkloadPool;
 import com.upgrad.myntra.service.dao.ItemDao;
 import com.upgrad.myntra.service.entity.ItemEntity;
+import com.upgrad.myntra.service.exception.ItemSearchException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.Collections;
 import java.util.List;
 
 @Service
+@WorkloadPool(Workload.CATALOG)
 public class ItemServiceImpl implements ItemService {
 
     @Autowired
     private ItemDao itemDao;
 
+    @Autowired
+    private ItemStore itemStore;
+
+    @Autowired
+    private CatalogRelations catalogRelations;
+
+    @Value("${myntra.catalog.price-pages.default-limit:20}")
+    private int defaultPageLimit;
+
+    @Value("${myntra.catalog.price-pages.max-limit:100}")
+    private int maxPageLimit;
+
+    private static final String CURSOR_SEPARATOR = "_";
+
     /**
-     * The method implements the business logic for getting list of items based on brand and category uuid.
+     * The method implements the business logic for getting list of items based on brand and category id.
+     * Items come from the off-heap item store while it is current, and from the database otherwise; a brand with no
+     * items in the category is answered from the catalog relations without either.
      */
     @Override
-    public List<ItemEntity> getItemsByCategoryAndBrand(String brandId, String categoryId) {
+    public List<ItemEntity> getItemsByCategoryAndBrand(Integer brandId, Integer categoryId) {
+        if (brandId != null && categoryId != null) {
+            if (catalogRelations.brandHasNoItemsInCategory(brandId, categoryId)) {
+                return Collections.emptyList();
+            }
+            List<ItemEntity> items = itemStore.getItemsByCategoryAndBrand(brandId, categoryId);
+            if (items != null) {
+                return items;
+            }
+        }
         return itemDao.getItemsByCategoryAndBrand(brandId, categoryId);
     }
 
+    /**
+     * The method implements the business logic for getting a page of the items of a category priced within a range,
+     * sorted by price. The cursor is the one returned by getNextPriceCursor for the last item of the previous page.
+     */
+    @Override
+    public List<ItemEntity> getItemsByCategoryAndPrice(Integer categoryId, Integer minPrice, Integer maxPrice, String sort, String cursor, Integer limit) throws ItemSearchException {
+        PriceQuery query = new PriceQuery(minPrice, maxPrice, sort, cursor, limit);
+        if (query.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return itemDao.getItemsByCategoryAndPrice(categoryId, query.minPrice, query.maxPrice, query.descending, query.afterPrice, query.afterId, query.limit);
+    }
+
+    /**
+     * The method implements the business logic for getting a page of the items of a brand priced within a range,
+     * sorted by price. The cursor is the one returned by getNextPriceCursor for the last item of the previous page.
+     */
+    @Override
+    public List<ItemEntity> getItemsByBrandAndPrice(Integer brandId, Integer minPrice, Integer maxPrice, String sort, String cursor, Integer limit) throws ItemSearchException {
+        PriceQuery query = new PriceQuery(minPrice, maxPrice, sort, cursor, limit);
+        if (query.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return itemDao.getItemsByBrandAndPrice(brandId, query.minPrice, query.maxPrice, query.descending, query.afterPrice, query.afterId, query.limit);
+    }
+
+    /**
+     * The method returns the cursor of the page following the given one: the price and id of its last item, which
+     * together are that item's position in price order. A page shorter than its limit is the last one and has none.
+     */
+    @Override
+    public String getNextPriceCursor(List<ItemEntity> page, Integer limit) {
+        if (page.isEmpty() || page.size() < pageLimit(limit)) {
+            return null;
+        }
+        ItemEntity last = page.get(page.size() - 1);
+        return last.getPrice() + CURSOR_SEPARATOR + last.getId();
+    }
+
+    private int pageLimit(Integer limit) {
+        return Math.min(limit == null ? defaultPageLimit : limit, maxPageLimit);
+    }
+
+    /**
+     * Validated parameters of a price page. Without a cursor the page starts before the first item of the sort order.
+     */
+    private final class PriceQuery {
+        private final int minPrice;
+        private final int maxPrice;
+        private final boolean descending;
+        private final int afterPrice;
+        private final int afterId;
+        private final int limit;
+
+        private PriceQuery(Integer minPrice, Integer maxPrice, String sort, String cursor, Integer limit) throws ItemSearchException {
+            this.minPrice = minPrice == null ? Integer.MIN_VALUE : minPrice;
+            this.maxPrice = maxPrice == null ? Integer.MAX_VALUE : maxPrice;
+            if (this.minPrice > this.maxPrice) {
+                throw new ItemSearchException("ISR-001", "Minimum price should not be greater than maximum price");
+            }
+            if (sort == null || sort.equalsIgnoreCase("asc")) {
+                this.descending = false;
+            } else if (sort.equalsIgnoreCase("desc")) {
+                this.descending = true;
+            } else {
+                throw new ItemSearchException("ISR-002", "Sort order should be asc or desc");
+            }
+            if (cursor == null || cursor.isEmpty()) {
+                this.afterPrice = descending ? Integer.MAX_VALUE : Integer.MIN_VALUE;
+                this.afterId = descending ? Integer.MAX_VALUE : Integer.MIN_VALUE;
+            } else {
+                int separator = cursor.lastIndexOf(CURSOR_SEPARATOR);
+                try {
+                    this.afterPrice = Integer.parseInt(cursor.substring(0, Math.max(separator, 0)));
+                    this.afterId = Integer.parseInt(cursor.substring(separator + 1));
+                } catch (NumberFormatException e) {
+                    throw new ItemSearchException("ISR-003", "Invalid page cursor");
+                }
+            }
+            if (limit != null && limit < 1) {
+                throw new ItemSearchException("ISR-004", "Page limit should be at least 1");
+            }
+            this.limit = pageLimit(limit);
+        }
+
+        // A cursor already past the end of the price range leaves nothing to read.
+        private boolean isEmpty() {
+            return descending ? afterPrice < minPrice : afterPrice > maxPrice;
+        }
+    }
+
 }
@@ -0,0 +1,369 @@
+package com.upgrad.myntra.service.business;
+
+import com.upgrad.myntra.service.common.Workload;
+import com.upgrad.myntra.service.common.WorkloadContext;
+import com.upgrad.myntra.service.dao.ItemDao;
+import com.upgrad.myntra.service.entity.ItemEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Off-heap copy of every item with its brand and categories, for catalogs too large to keep as entities on the heap.
+ * Enabled with "myntra.catalog.item-store.enabled"; {@link ItemServiceImpl} uses it for every brand and category
+ * whose items have not changed since the copy was read, and falls back to the database otherwise.
+ * <p>
+ * The catalog change feed records the brands, categories and items changed since the copy was read; a scheduled
+ * check builds a new copy once they exceed "myntra.catalog.item-store.rebuild-after-changes". Changes arriving while
+ * a copy is read are recorded against the new copy too. The copy is read on the catalog pool in short keyset chunks,
+ * so no connection is held for the whole load, and the feed is started first, so no change can fall between the two.
+ * The heap holds only primitive arrays while building; the built store is a memory-mapped file.
+ */
+@Component
+@ManagedResource(objectName = "com.upgrad.myntra:type=ItemStore")
+public class ItemStore {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ItemStore.class);
+
+    private static final int LOAD_CHUNK = 10000;
+
+    /**
+     * Brands, categories and items changed since a snapshot was read.
+     */
+    private static final class Changes {
+
+        private final Set<Integer> brands = ConcurrentHashMap.newKeySet();
+
+        private final Set<Integer> categories = ConcurrentHashMap.newKeySet();
+
+        private final Set<Integer> items = ConcurrentHashMap.newKeySet();
+
+        private void add(CatalogChangeEvent event) {
+            switch (event.getSubject()) {
+                case ITEM:
+                    items.add(event.getId());
+                    break;
+                case BRAND_ITEM:
+                    brands.add(event.getBrandId());
+                    items.add(event.getItemId());
+                    break;
+                case CATEGORY_ITEM:
+                    categories.add(event.getCategoryId());
+                    items.add(event.getItemId());
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private int size() {
+            return brands.size() + categories.size() + items.size();
+        }
+    }
+
+    /**
+     * A snapshot with the changes made since it was read, swapped as one.
+     */
+    private static final class State {
+
+        private final ItemStoreSnapshot snapshot;
+
+        private final Changes changes;
+
+        private State(ItemStoreSnapshot snapshot, Changes changes) {
+            this.snapshot = snapshot;
+            this.changes = changes;
+        }
+    }
+
+    @Autowired
+    private ItemDao itemDao;
+
+    @Autowired
+    private CatalogChangePoller catalogChangePoller;
+
+    @Value("${myntra.catalog.item-store.enabled:false}")
+    private boolean enabled;
+
+    @Value("${myntra.catalog.item-store.directory:${java.io.tmpdir}}")
+    private String directory;
+
+    @Value("${myntra.catalog.item-store.rebuild-after-changes:1000}")
+    private int rebuildAfterChanges;
+
+    // Guards the swap of the state against the recording of a change, which must reach the changes of the new state.
+    private final Object changeLock = new Object();
+
+    private volatile State state;
+
+    // Changes since the snapshot being read started, null while no rebuild runs.
+    private volatile Changes loading;
+
+    private boolean unmapWarned;
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void onStartup() {
+        if (enabled && state == null) {
+            rebuildIfStale();
+        }
+    }
+
+    /**
+     * @return the items of the brand in the category ordered by name, or null when the store is disabled or the
+     * brand, the category or one of the items changed since the store was read.
+     */
+    public List<ItemEntity> getItemsByCategoryAndBrand(int brandId, int categoryId) {
+        State current = state;
+        if (current == null || current.changes.brands.contains(brandId) || current.changes.categories.contains(categoryId)) {
+            return null;
+        }
+        ItemStoreSnapshot snapshot = current.snapshot;
+        if (!snapshot.acquire()) {
+            return null;
+        }
+        try {
+            int[] rows = snapshot.rowsOfBrandInCategory(brandId, categoryId);
+            List<ItemEntity> items = new ArrayList<>(rows.length);
+            for (int row : rows) {
+                if (current.changes.items.contains(snapshot.id(row))) {
+                    return null;
+                }
+                items.add(snapshot.item(row));
+            }
+            return items;
+        } finally {
+            release(snapshot);
+        }
+    }
+
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        synchronized (changeLock) {
+            if (state != null) {
+                state.changes.add(event);
+            }
+            if (loading != null) {
+                loading.add(event);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${myntra.catalog.item-store.rebuild-check-ms:5000}")
+    public void rebuildIfStale() {
+        State current = state;
+        if (enabled && (current == null || current.changes.size() >= rebuildAfterChanges)) {
+            rebuild();
+        }
+    }
+
+    /**
+     * This method loads every item into a new store and swaps it in, with the changes that arrived while loading.
+     */
+    @ManagedOperation(description = "Rebuild the item store now")
+    public synchronized void rebuild() {
+        // Every change committed before the feed's start horizon is visible to the load; every later one is published.
+        catalogChangePoller.getStartHorizon();
+        Changes changes = new Changes();
+        synchronized (changeLock) {
+            loading = changes;
+        }
+        long started = System.currentTimeMillis();
+        Workload previous = WorkloadContext.enter(Workload.CATALOG);
+        try {
+            ItemStoreSnapshot built = load(changes);
+            State replaced;
+            synchronized (changeLock) {
+                replaced = state;
+                state = new State(built, changes);
+                loading = null;
+            }
+            if (replaced != null) {
+                release(replaced.snapshot);
+            }
+            LOG.info("Item store built with {} items and {} category links, {} bytes mapped, in {} ms",
+                    built.getRows(), built.getLinks(), built.getMappedBytes(), System.currentTimeMillis() - started);
+        } catch (RuntimeException e) {
+            LOG.error("Item store rebuild failed; items are read from the database", e);
+        } finally {
+            synchronized (changeLock) {
+                loading = null;
+            }
+            WorkloadContext.restore(previous);
+        }
+    }
+
+    private void release(ItemStoreSnapshot snapshot) {
+        if (!snapshot.release() && !unmapWarned) {
+            unmapWarned = true;
+            LOG.warn("Item store files cannot be unmapped on this JVM; retired stores are released by the garbage collector");
+        }
+    }
+
+    /**
+     * Rows changed between two chunks may be read twice or not at all; their change is recorded in changes, and a
+     * link to an item that was not read marks its category changed.
+     */
+    private ItemStoreSnapshot load(Changes changes) {
+        Columns columns = new Columns();
+        String[] afterName = {""};
+        int[] afterId = {Integer.MIN_VALUE};
+        int[] chunk = {0};
+        do {
+            chunk[0] = 0;
+            itemDao.scanItemRecordsAfter(afterName[0], afterId[0], LOAD_CHUNK, rs -> {
+                int brandId = rs.getInt("brand_id");
+                if (rs.wasNull()) {
+                    brandId = -1;
+                }
+                afterId[0] = rs.getInt("id");
+                afterName[0] = rs.getString("item_name");
+                columns.add(afterId[0], (UUID) rs.getObject("uuid"), afterName[0], rs.getInt("price"), brandId);
+                chunk[0]++;
+            });
+        } while (chunk[0] == LOAD_CHUNK);
+        int rows = columns.rows;
+        // Rows are in name order; a sorted copy of the ids maps the item ids of the links back to rows.
+        int[] idOrder = new int[rows];
+        for (int r = 0; r < rows; r++) {
+            idOrder[r] = r;
+        }
+        int[] sortedIds = Arrays.copyOf(columns.ids, rows);
+        int[] rowOfSorted = sortRows(sortedIds, idOrder);
+        int[][] links = {new int[1024], new int[1024]};
+        int[] linkCount = {0};
+        int[] afterLink = {Integer.MIN_VALUE, Integer.MIN_VALUE};
+        do {
+            chunk[0] = 0;
+            itemDao.scanItemCategoriesAfter(afterLink[0], afterLink[1], LOAD_CHUNK, rs -> {
+                afterLink[0] = rs.getInt("item_id");
+                afterLink[1] = rs.getInt("category_id");
+                chunk[0]++;
+                int index = Arrays.binarySearch(sortedIds, afterLink[0]);
+                if (index < 0) {
+                    changes.categories.add(afterLink[1]);
+                    return;
+                }
+                if (linkCount[0] == links[0].length) {
+                    links[0] = Arrays.copyOf(links[0], linkCount[0] * 2);
+                    links[1] = Arrays.copyOf(links[1], linkCount[0] * 2);
+                }
+                links[0][linkCount[0]] = rowOfSorted[index];
+                links[1][linkCount[0]++] = afterLink[1];
+            });
+        } while (chunk[0] == LOAD_CHUNK);
+        try {
+            return ItemStoreSnapshot.write(Paths.get(directory), rows, columns.uuidMsb, columns.uuidLsb, columns.ids,
+                    columns.prices, columns.brands, columns.nameOffsets(), columns.names.toByteArray(),
+                    linkCount[0], links[0], links[1]);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Sorts ids ascending in place, carrying the rows along.
+     *
+     * @return the row of each sorted id.
+     */
+    private static int[] sortRows(int[] ids, int[] rows) {
+        long[] pairs = new long[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            pairs[i] = ((long) ids[i] << 32) | (rows[i] & 0xFFFFFFFFL);
+        }
+        Arrays.sort(pairs);
+        for (int i = 0; i < pairs.length; i++) {
+            ids[i] = (int) (pairs[i] >> 32);
+            rows[i] = (int) pairs[i];
+        }
+        return rows;
+    }
+
+    @ManagedAttribute(description = "Items held by the current store, -1 when none is built")
+    public int getItemCount() {
+        State current = state;
+        return current == null ? -1 : current.snapshot.getRows();
+    }
+
+    @ManagedAttribute(description = "Bytes of the memory-mapped store file")
+    public long getMappedBytes() {
+        State current = state;
+        return current == null ? 0 : current.snapshot.getMappedBytes();
+    }
+
+    @ManagedAttribute(description = "Brands, categories and items changed since the store was read, served from the database")
+    public int getChangedEntries() {
+        State current = state;
+        return current == null ? -1 : current.changes.size();
+    }
+
+    /**
+     * Growable item columns filled while scanning ITEM.
+     */
+    private static final class Columns {
+
+        private int rows;
+
+        private int[] ids = new int[1024];
+
+        private long[] uuidMsb = new long[1024];
+
+        private long[] uuidLsb = new long[1024];
+
+        private int[] prices = new int[1024];
+
+        private int[] brands = new int[1024];
+
+        private int[] nameEnds = new int[1024];
+
+        private final ByteArrayOutputStream names = new ByteArrayOutputStream(1 << 16);
+
+        private void add(int id, UUID uuid, String name, int price, int brandId) {
+            if (rows == ids.length) {
+                int capacity = rows * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                uuidMsb = Arrays.copyOf(uuidMsb, capacity);
+                uuidLsb = Arrays.copyOf(uuidLsb, capacity);
+                prices = Arrays.copyOf(prices, capacity);
+                brands = Arrays.copyOf(brands, capacity);
+                nameEnds = Arrays.copyOf(nameEnds, capacity);
+            }
+            byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+            names.write(nameBytes, 0, nameBytes.length);
+            ids[rows] = id;
+            uuidMsb[rows] = uuid.getMostSignificantBits();
+            uuidLsb[rows] = uuid.getLeastSignificantBits();
+            prices[rows] = price;
+            brands[rows] = brandId;
+            nameEnds[rows++] = names.size();
+        }
+
+        private int[] nameOffsets() {
+            int[] offsets = new int[rows + 1];
+            System.arraycopy(nameEnds, 0, offsets, 1, rows);
+            return offsets;
+        }
+    }
+}
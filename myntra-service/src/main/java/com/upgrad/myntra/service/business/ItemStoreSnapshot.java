@@ -0,0 +1,388 @@
+package com.upgrad.myntra.service.business;
+
+import com.upgrad.myntra.service.entity.ItemEntity;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One immutable, memory-mapped copy of every item, laid out column by column. Rows are numbered in item name order,
+ * so any ascending list of rows is also sorted by name.
+ * <pre>
+ * uuid msb, uuid lsb      long[rows]
+ * id, price, brand id     int[rows]       brand id -1 when the item has no brand
+ * name offset             int[rows + 1]   into the name bytes
+ * category offset         int[rows + 1]   into the category ids
+ * category ids            int[links]
+ * brand keys, starts      int[brands], int[brands + 1]          brand id to a range of brand rows
+ * brand rows              int[rows with a brand]                ascending within each brand
+ * category keys, starts   int[categories], int[categories + 1]  category id to a range of category rows
+ * category rows           int[links]                            ascending within each category
+ * name bytes              UTF-8
+ * </pre>
+ * Nothing but the file mapping lives on the heap. The store holds one reference and every read another; the mapping
+ * is unmapped as soon as the store has retired the snapshot and the last read has released it.
+ */
+final class ItemStoreSnapshot {
+
+    private final MappedByteBuffer buffer;
+
+    private final AtomicInteger references = new AtomicInteger(1);
+
+    private final int rows;
+
+    private final int links;
+
+    private final int uuidMsbAt;
+
+    private final int uuidLsbAt;
+
+    private final int idAt;
+
+    private final int priceAt;
+
+    private final int brandAt;
+
+    private final int nameOffsetAt;
+
+    private final int categoryOffsetAt;
+
+    private final int categoryIdsAt;
+
+    private final Index brandIndex;
+
+    private final Index categoryIndex;
+
+    private final int namesAt;
+
+    private final IntBuffer brandRows;
+
+    private final IntBuffer categoryRows;
+
+    /**
+     * Keys, range starts and rows of one id to rows index.
+     */
+    private static final class Index {
+
+        private final int keys;
+
+        private final int keysAt;
+
+        private final int startsAt;
+
+        private final int rowsAt;
+
+        private Index(int keys, int keysAt, int startsAt, int rowsAt) {
+            this.keys = keys;
+            this.keysAt = keysAt;
+            this.startsAt = startsAt;
+            this.rowsAt = rowsAt;
+        }
+    }
+
+    private ItemStoreSnapshot(MappedByteBuffer buffer, int rows, int links, int brandKeys, int brandRowCount, int categoryKeys) {
+        this.buffer = buffer;
+        this.rows = rows;
+        this.links = links;
+        int at = 0;
+        uuidMsbAt = at;
+        at += 8 * rows;
+        uuidLsbAt = at;
+        at += 8 * rows;
+        idAt = at;
+        at += 4 * rows;
+        priceAt = at;
+        at += 4 * rows;
+        brandAt = at;
+        at += 4 * rows;
+        nameOffsetAt = at;
+        at += 4 * (rows + 1);
+        categoryOffsetAt = at;
+        at += 4 * (rows + 1);
+        categoryIdsAt = at;
+        at += 4 * links;
+        brandIndex = new Index(brandKeys, at, at + 4 * brandKeys, at + 4 * brandKeys + 4 * (brandKeys + 1));
+        at = brandIndex.rowsAt + 4 * brandRowCount;
+        categoryIndex = new Index(categoryKeys, at, at + 4 * categoryKeys, at + 4 * categoryKeys + 4 * (categoryKeys + 1));
+        at = categoryIndex.rowsAt + 4 * links;
+        namesAt = at;
+        brandRows = ints(buffer, brandIndex.rowsAt, brandRowCount);
+        categoryRows = ints(buffer, categoryIndex.rowsAt, links);
+    }
+
+    private static IntBuffer ints(ByteBuffer buffer, int at, int length) {
+        ByteBuffer view = buffer.duplicate();
+        view.position(at);
+        view.limit(at + 4 * length);
+        return view.slice().asIntBuffer();
+    }
+
+    private static long size(int rows, int links, int brandKeys, int brandRows, int categoryKeys, long nameBytes) {
+        return 16L * rows + 12L * rows + 8L * (rows + 1) + 4L * links
+                + 4L * (2 * brandKeys + 1) + 4L * brandRows
+                + 4L * (2 * categoryKeys + 1) + 4L * links
+                + nameBytes;
+    }
+
+    /**
+     * This method writes the given columns to a new file in the directory and maps it. The file is unlinked once
+     * mapped, so nothing is left behind when the process exits.
+     *
+     * @param linkRows     row of each CATEGORY_ITEM link, in any order.
+     * @param linkCategory category id of each CATEGORY_ITEM link.
+     */
+    static ItemStoreSnapshot write(Path directory, int rows, long[] uuidMsb, long[] uuidLsb, int[] ids, int[] prices,
+                                   int[] brands, int[] nameOffsets, byte[] names,
+                                   int links, int[] linkRows, int[] linkCategory) throws IOException {
+        // Categories of each row, grouped by row with a counting sort.
+        int[] categoryOffsets = new int[rows + 1];
+        for (int i = 0; i < links; i++) {
+            categoryOffsets[linkRows[i] + 1]++;
+        }
+        for (int r = 0; r < rows; r++) {
+            categoryOffsets[r + 1] += categoryOffsets[r];
+        }
+        int[] categoryIds = new int[links];
+        int[] fill = Arrays.copyOf(categoryOffsets, rows);
+        for (int i = 0; i < links; i++) {
+            categoryIds[fill[linkRows[i]]++] = linkCategory[i];
+        }
+
+        int brandRowCount = 0;
+        for (int r = 0; r < rows; r++) {
+            if (brands[r] >= 0) {
+                brandRowCount++;
+            }
+        }
+        int[] brandRowKeys = new int[brandRowCount];
+        int[] brandRowRows = new int[brandRowCount];
+        for (int r = 0, i = 0; r < rows; r++) {
+            if (brands[r] >= 0) {
+                brandRowKeys[i] = brands[r];
+                brandRowRows[i++] = r;
+            }
+        }
+        // Walking the rows in order keeps every posting list ascending.
+        int[] categoryRowKeys = new int[links];
+        int[] categoryRowRows = new int[links];
+        for (int r = 0, i = 0; r < rows; r++) {
+            for (int c = categoryOffsets[r]; c < categoryOffsets[r + 1]; c++, i++) {
+                categoryRowKeys[i] = categoryIds[c];
+                categoryRowRows[i] = r;
+            }
+        }
+        int[][] brandIndex = group(brandRowKeys, brandRowRows);
+        int[][] categoryIndex = group(categoryRowKeys, categoryRowRows);
+
+        long size = size(rows, links, brandIndex[0].length, brandRowCount, categoryIndex[0].length, names.length);
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Item store of " + size + " bytes exceeds a single mapping");
+        }
+        Path file = Files.createTempFile(directory, "item-store-", ".bin");
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        } finally {
+            try {
+                Files.delete(file);
+            } catch (IOException e) {
+                file.toFile().deleteOnExit();
+            }
+        }
+        ItemStoreSnapshot snapshot = new ItemStoreSnapshot(buffer, rows, links, brandIndex[0].length, brandRowCount,
+                categoryIndex[0].length);
+        put(buffer, snapshot.uuidMsbAt, uuidMsb, rows);
+        put(buffer, snapshot.uuidLsbAt, uuidLsb, rows);
+        put(buffer, snapshot.idAt, ids, rows);
+        put(buffer, snapshot.priceAt, prices, rows);
+        put(buffer, snapshot.brandAt, brands, rows);
+        put(buffer, snapshot.nameOffsetAt, nameOffsets, rows + 1);
+        put(buffer, snapshot.categoryOffsetAt, categoryOffsets, rows + 1);
+        put(buffer, snapshot.categoryIdsAt, categoryIds, links);
+        put(buffer, snapshot.brandIndex, brandIndex);
+        put(buffer, snapshot.categoryIndex, categoryIndex);
+        ByteBuffer namesView = buffer.duplicate();
+        namesView.position(snapshot.namesAt);
+        namesView.put(names, 0, names.length);
+        return snapshot;
+    }
+
+    /**
+     * Groups (key, row) pairs, given in ascending row order, by key.
+     *
+     * @return the distinct keys in ascending order, the start of each key's range plus the end, and the rows.
+     */
+    private static int[][] group(int[] keys, int[] rows) {
+        int[] distinct = keys.clone();
+        Arrays.sort(distinct);
+        int count = 0;
+        for (int i = 0; i < distinct.length; i++) {
+            if (i == 0 || distinct[i] != distinct[i - 1]) {
+                distinct[count++] = distinct[i];
+            }
+        }
+        distinct = Arrays.copyOf(distinct, count);
+        int[] starts = new int[count + 1];
+        for (int key : keys) {
+            starts[Arrays.binarySearch(distinct, key) + 1]++;
+        }
+        for (int k = 0; k < count; k++) {
+            starts[k + 1] += starts[k];
+        }
+        int[] grouped = new int[rows.length];
+        int[] fill = Arrays.copyOf(starts, count);
+        for (int i = 0; i < keys.length; i++) {
+            grouped[fill[Arrays.binarySearch(distinct, keys[i])]++] = rows[i];
+        }
+        return new int[][]{distinct, starts, grouped};
+    }
+
+    private static void put(ByteBuffer buffer, int at, long[] values, int length) {
+        ByteBuffer view = buffer.duplicate();
+        view.position(at);
+        view.asLongBuffer().put(values, 0, length);
+    }
+
+    private static void put(ByteBuffer buffer, int at, int[] values, int length) {
+        ByteBuffer view = buffer.duplicate();
+        view.position(at);
+        view.asIntBuffer().put(values, 0, length);
+    }
+
+    private static void put(ByteBuffer buffer, Index index, int[][] grouped) {
+        put(buffer, index.keysAt, grouped[0], grouped[0].length);
+        put(buffer, index.startsAt, grouped[1], grouped[1].length);
+        put(buffer, index.rowsAt, grouped[2], grouped[2].length);
+    }
+
+    /**
+     * This method takes a reference for a read, to be returned with {@link #release}.
+     *
+     * @return false if the snapshot has already been unmapped.
+     */
+    boolean acquire() {
+        for (int count = references.get(); count > 0; count = references.get()) {
+            if (references.compareAndSet(count, count + 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * This method returns a reference; the last one unmaps the file.
+     *
+     * @return false if the last reference was returned but the mapping is left to the garbage collector because
+     * this JVM does not let it be unmapped.
+     */
+    boolean release() {
+        return references.decrementAndGet() != 0 || unmap(buffer);
+    }
+
+    private static boolean unmap(MappedByteBuffer buffer) {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            try {
+                // Java 9 and later.
+                Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+                Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+                theUnsafe.setAccessible(true);
+                invokeCleaner.invoke(theUnsafe.get(null), buffer);
+            } catch (NoSuchMethodException e) {
+                // Java 8: DirectByteBuffer.cleaner().clean().
+                Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+                cleanerMethod.setAccessible(true);
+                Object cleaner = cleanerMethod.invoke(buffer);
+                cleaner.getClass().getMethod("clean").invoke(cleaner);
+            }
+            return true;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    int getRows() {
+        return rows;
+    }
+
+    int getLinks() {
+        return links;
+    }
+
+    long getMappedBytes() {
+        return buffer.capacity();
+    }
+
+    /**
+     * @return the rows of the items of the brand that are in the category, in name order.
+     */
+    int[] rowsOfBrandInCategory(int brandId, int categoryId) {
+        int brand = find(brandIndex, brandId);
+        int category = find(categoryIndex, categoryId);
+        if (brand < 0 || category < 0) {
+            return new int[0];
+        }
+        int brandStart = start(brandIndex, brand);
+        int brandEnd = start(brandIndex, brand + 1);
+        int categoryStart = start(categoryIndex, category);
+        int categoryEnd = start(categoryIndex, category + 1);
+        int[] matches = new int[Math.min(brandEnd - brandStart, categoryEnd - categoryStart)];
+        int count = SortedInts.intersect(brandRows, brandStart, brandEnd, categoryRows, categoryStart, categoryEnd, matches);
+        return count == matches.length ? matches : Arrays.copyOf(matches, count);
+    }
+
+    int id(int row) {
+        return buffer.getInt(idAt + 4 * row);
+    }
+
+    /**
+     * @return a detached ItemEntity holding the id, uuid, name and price of the row; brand and categories are not set.
+     */
+    ItemEntity item(int row) {
+        ItemEntity item = new ItemEntity();
+        item.setId(buffer.getInt(idAt + 4 * row));
+        item.setUuid(new UUID(buffer.getLong(uuidMsbAt + 8 * row), buffer.getLong(uuidLsbAt + 8 * row)));
+        item.setPrice(buffer.getInt(priceAt + 4 * row));
+        int nameStart = buffer.getInt(nameOffsetAt + 4 * row);
+        int nameEnd = buffer.getInt(nameOffsetAt + 4 * (row + 1));
+        byte[] name = new byte[nameEnd - nameStart];
+        ByteBuffer view = buffer.duplicate();
+        view.position(namesAt + nameStart);
+        view.get(name);
+        item.setItemName(new String(name, StandardCharsets.UTF_8));
+        return item;
+    }
+
+    private int find(Index index, int key) {
+        int low = 0;
+        int high = index.keys - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int value = buffer.getInt(index.keysAt + 4 * mid);
+            if (value < key) {
+                low = mid + 1;
+            } else if (value > key) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private int start(Index index, int key) {
+        return buffer.getInt(index.startsAt + 4 * key);
+    }
+}
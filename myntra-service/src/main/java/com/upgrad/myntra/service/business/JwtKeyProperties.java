@@ -0,0 +1,37 @@
+package com.upgrad.myntra.service.business;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Server side JWT signing keys, bound from the "myntra.jwt" properties.
+ * Rotating keys is a configuration change: add the new key id, point active-key-id at it and keep the retired
+ * ids listed until every token signed with them has expired.
+ */
+@Component
+@ConfigurationProperties(prefix = "myntra.jwt")
+public class JwtKeyProperties {
+
+    private String activeKeyId;
+
+    private Map<String, String> keys = new LinkedHashMap<>();
+
+    public String getActiveKeyId() {
+        return activeKeyId;
+    }
+
+    public void setActiveKeyId(String activeKeyId) {
+        this.activeKeyId = activeKeyId;
+    }
+
+    public Map<String, String> getKeys() {
+        return keys;
+    }
+
+    public void setKeys(Map<String, String> keys) {
+        this.keys = keys;
+    }
+}
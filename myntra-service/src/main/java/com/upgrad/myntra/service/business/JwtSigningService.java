@@ -0,0 +1,82 @@
+package com.upgrad.myntra.service.business;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.upgrad.myntra.service.common.GenericErrorCode;
+import com.upgrad.myntra.service.common.UnexpectedException;
+import com.upgrad.myntra.service.exception.AuthorizationFailedException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Issues and verifies access tokens with the configured server keys.
+ * One JwtTokenProvider is built per key id at startup, so issuing a token neither creates an Algorithm nor keys a Mac.
+ */
+@Component
+public class JwtSigningService {
+
+    @Autowired
+    private JwtKeyProperties jwtKeyProperties;
+
+    private Map<String, JwtTokenProvider> providers = Collections.emptyMap();
+
+    private JwtTokenProvider activeProvider;
+
+    /**
+     * Builds the key set from the properties. A missing or empty key, or an active key id that names none of them,
+     * stops the application from starting.
+     */
+    @PostConstruct
+    public void init() {
+        Map<String, JwtTokenProvider> built = new HashMap<>();
+        for (Map.Entry<String, String> key : jwtKeyProperties.getKeys().entrySet()) {
+            if (key.getValue() == null || key.getValue().isEmpty()) {
+                throw new UnexpectedException(GenericErrorCode.GEN_001);
+            }
+            built.put(key.getKey(), new JwtTokenProvider(key.getKey(), new PooledHmacAlgorithm(key.getValue().getBytes(StandardCharsets.UTF_8))));
+        }
+        JwtTokenProvider active = built.get(jwtKeyProperties.getActiveKeyId());
+        if (active == null) {
+            throw new UnexpectedException(GenericErrorCode.GEN_001);
+        }
+        providers = Collections.unmodifiableMap(built);
+        activeProvider = active;
+    }
+
+    /**
+     * This method signs a new access token for the customer with the active key.
+     */
+    public String generateToken(final String customerUuid, final ZonedDateTime issuedDateTime, final ZonedDateTime expiresDateTime) {
+        return activeProvider.generateToken(customerUuid, issuedDateTime, expiresDateTime);
+    }
+
+    /**
+     * This method verifies the signature of a token with the key named by its key id.
+     *
+     * @return the decoded token.
+     * @throws AuthorizationFailedException ATHR-005 when the token is malformed, its key id is unknown or the
+     * signature does not match.
+     */
+    public DecodedJWT verify(final String token) throws AuthorizationFailedException {
+        try {
+            DecodedJWT decoded = JWT.decode(token);
+            JwtTokenProvider provider = decoded.getKeyId() == null ? null : providers.get(decoded.getKeyId());
+            if (provider == null) {
+                throw new AuthorizationFailedException("ATHR-005", "Invalid access token");
+            }
+            provider.getAlgorithm().verify(decoded);
+            return decoded;
+        } catch (JWTVerificationException | IllegalArgumentException e) {
+            // Malformed Base64 in any of the three parts surfaces as IllegalArgumentException.
+            throw new AuthorizationFailedException("ATHR-005", "Invalid access token");
+        }
+    }
+}
@@ -8,20 +8,29 @@ import com.upgrad.myntra.service.common.UnexpectedException;
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoField;
 import java.util.Date;
-import java.util.UUID;
 
 
 public class JwtTokenProvider {
     private static final String TOKEN_ISSUER = "https://Myntra.io";
 
+    private final String keyId;
+
     private final Algorithm algorithm;
 
-    public JwtTokenProvider(final String secret) {
-        try {
-            algorithm = Algorithm.HMAC512(secret);
-        } catch (IllegalArgumentException e) {
+    public JwtTokenProvider(final String keyId, final Algorithm algorithm) {
+        if (keyId == null || algorithm == null) {
             throw new UnexpectedException(GenericErrorCode.GEN_001);
         }
+        this.keyId = keyId;
+        this.algorithm = algorithm;
+    }
+
+    public String getKeyId() {
+        return keyId;
+    }
+
+    public Algorithm getAlgorithm() {
+        return algorithm;
     }
 
     public String generateToken(final String customerUuid, final ZonedDateTime issuedDateTime, final ZonedDateTime expiresDateTime) {
@@ -30,7 +39,7 @@ public class JwtTokenProvider {
         final Date expiresAt = new Date(expiresDateTime.getLong(ChronoField.INSTANT_SECONDS));
 
         return JWT.create().withIssuer(TOKEN_ISSUER) //
-                .withKeyId(UUID.randomUUID().toString())
+                .withKeyId(keyId)
                 .withAudience(customerUuid) //
                 .withIssuedAt(issuedAt).withExpiresAt(expiresAt).sign(algorithm);
     }
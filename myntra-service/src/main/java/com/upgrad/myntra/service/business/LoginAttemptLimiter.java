@@ -0,0 +1,176 @@
+package com.upgrad.myntra.service.business;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory sliding window counter of failed login attempts, keyed by contact number and, when the caller can
+ * identify the client, by client address.
+ * Attempts over budget are rejected before the password is hashed, so a credential stuffing burst costs a map
+ * lookup per request instead of a PBKDF2 computation.
+ *
+ * Counters are spread over independent shards and updated with compare-and-set only. Windows which have seen no
+ * failure for a whole window length are swept out of their shard, which bounds memory to the keys active recently.
+ */
+@Component
+public class LoginAttemptLimiter {
+
+    private static final int BUCKETS = 10;
+    private static final int SWEEP_INTERVAL = 1024;
+    private static final long COUNT_MASK = 0xFFFFFFL;
+    private static final int EPOCH_SHIFT = 24;
+
+    @Value("${myntra.login.throttle.max-failures-per-account:10}")
+    private int maxFailuresPerAccount;
+
+    @Value("${myntra.login.throttle.max-failures-per-client:50}")
+    private int maxFailuresPerClient;
+
+    @Value("${myntra.login.throttle.window-seconds:300}")
+    private long windowSeconds;
+
+    @Value("${myntra.login.throttle.shards:16}")
+    private int shardCount;
+
+    private Shard[] shards;
+
+    private long bucketMillis;
+
+    @PostConstruct
+    public void init() {
+        if (windowSeconds <= 0) {
+            throw new IllegalStateException("myntra.login.throttle.window-seconds must be positive, was " + windowSeconds);
+        }
+        int size = Integer.highestOneBit(Math.max(1, shardCount - 1)) << 1;
+        shards = new Shard[size];
+        for (int i = 0; i < size; i++) {
+            shards[i] = new Shard();
+        }
+        bucketMillis = Math.max(1L, windowSeconds * 1000L / BUCKETS);
+    }
+
+    /**
+     * This method tells whether another login attempt is allowed for the account and client address.
+     */
+    public boolean isAllowed(final String contactNumber, final String clientAddress) {
+        long epoch = currentEpoch();
+        if (contactNumber != null && failures(accountKey(contactNumber), epoch) >= maxFailuresPerAccount) {
+            return false;
+        }
+        return clientAddress == null || failures(clientKey(clientAddress), epoch) < maxFailuresPerClient;
+    }
+
+    /**
+     * This method counts a failed login attempt against the account and client address.
+     */
+    public void recordFailure(final String contactNumber, final String clientAddress) {
+        long epoch = currentEpoch();
+        if (contactNumber != null) {
+            increment(accountKey(contactNumber), epoch);
+        }
+        if (clientAddress != null) {
+            increment(clientKey(clientAddress), epoch);
+        }
+    }
+
+    /**
+     * This method clears the failure count of an account after a successful login.
+     * The client address keeps its count, so one valid account cannot be used to unlock guessing on others.
+     */
+    public void recordSuccess(final String contactNumber) {
+        if (contactNumber != null) {
+            String key = accountKey(contactNumber);
+            shardFor(key).windows.remove(key);
+        }
+    }
+
+    private int failures(final String key, final long epoch) {
+        Window window = shardFor(key).windows.get(key);
+        return window == null ? 0 : window.count(epoch);
+    }
+
+    private void increment(final String key, final long epoch) {
+        Shard shard = shardFor(key);
+        Window window = shard.windows.get(key);
+        if (window == null) {
+            Window created = new Window();
+            window = shard.windows.putIfAbsent(key, created);
+            if (window == null) {
+                window = created;
+            }
+        }
+        window.increment(epoch);
+        if (shard.operations.incrementAndGet() % SWEEP_INTERVAL == 0) {
+            shard.sweep(epoch);
+        }
+    }
+
+    private Shard shardFor(final String key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return shards[h & (shards.length - 1)];
+    }
+
+    private long currentEpoch() {
+        return System.currentTimeMillis() / bucketMillis;
+    }
+
+    private static String accountKey(final String contactNumber) {
+        return "c:" + contactNumber;
+    }
+
+    private static String clientKey(final String clientAddress) {
+        return "a:" + clientAddress;
+    }
+
+    private static final class Shard {
+        private final ConcurrentHashMap<String, Window> windows = new ConcurrentHashMap<>();
+        private final AtomicInteger operations = new AtomicInteger();
+
+        private void sweep(final long epoch) {
+            // An increment racing with the removal may be lost; the limiter is allowed to under-count by that much.
+            windows.values().removeIf(window -> window.isIdle(epoch));
+        }
+    }
+
+    /**
+     * Ring of per-bucket counters. Each slot packs the bucket epoch in the high bits and the count in the low 24 bits,
+     * so a stale slot is reset and incremented in a single compare-and-set.
+     */
+    private static final class Window {
+        private final AtomicLongArray slots = new AtomicLongArray(BUCKETS);
+
+        private void increment(final long epoch) {
+            int index = (int) (epoch % BUCKETS);
+            while (true) {
+                long current = slots.get(index);
+                long next = (current >>> EPOCH_SHIFT) == epoch
+                        ? (current & COUNT_MASK) == COUNT_MASK ? current : current + 1
+                        : (epoch << EPOCH_SHIFT) | 1L;
+                if (slots.compareAndSet(index, current, next)) {
+                    return;
+                }
+            }
+        }
+
+        private int count(final long epoch) {
+            int total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                long slot = slots.get(i);
+                if (epoch - (slot >>> EPOCH_SHIFT) < BUCKETS) {
+                    total += (int) (slot & COUNT_MASK);
+                }
+            }
+            return total;
+        }
+
+        private boolean isIdle(final long epoch) {
+            return count(epoch) == 0;
+        }
+    }
+}
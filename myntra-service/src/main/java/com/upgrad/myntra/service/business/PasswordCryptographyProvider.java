@@ -1,14 +1,19 @@
 package com.upgrad.myntra.service.business;
 
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PostConstruct;
 import javax.crypto.SecretKey;
 import javax.crypto.SecretKeyFactory;
 import javax.crypto.spec.PBEKeySpec;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.security.spec.InvalidKeySpecException;
+import java.util.Arrays;
 import java.util.Base64;
 import java.util.Random;
 
@@ -16,33 +21,125 @@ import java.util.Random;
 @Component
 public class PasswordCryptographyProvider {
 
-    private static String SECRET_KEY_ALGORITHM = "PBKDF2WithHmacSHA512";
-    private static int HASHING_ITERATIONS = 1000;
-    private static int HASHING_KEY_LENGTH = 64;
+    private static final Logger LOG = LoggerFactory.getLogger(PasswordCryptographyProvider.class);
+
+    /**
+     * Parameters every hash was created with before hash records were versioned.
+     * Rows without stored parameters are verified with these.
+     */
+    public static final String LEGACY_ALGORITHM = "PBKDF2WithHmacSHA512";
+    public static final int LEGACY_ITERATIONS = 1000;
+    public static final int LEGACY_KEY_LENGTH = 64;
+
+    private static final int CALIBRATION_ROUNDS = 5;
+    private static final int ITERATION_STEP = 1000;
     private final static char[] hexArray = "0123456789ABCDEF".toCharArray();
 
+    @Value("${myntra.password.algorithm:" + LEGACY_ALGORITHM + "}")
+    private String algorithm = LEGACY_ALGORITHM;
+
+    @Value("${myntra.password.iterations:" + LEGACY_ITERATIONS + "}")
+    private int iterations = LEGACY_ITERATIONS;
+
+    @Value("${myntra.password.key-length:" + LEGACY_KEY_LENGTH + "}")
+    private int keyLength = LEGACY_KEY_LENGTH;
+
+    /**
+     * When greater than zero the iteration count that makes one hash take about this long on this machine is
+     * measured at startup and logged, for operators to pin in myntra.password.iterations.
+     */
+    @Value("${myntra.password.calibrate-target-ms:0}")
+    private long calibrateTargetMillis;
+
     /**
-     * This method generates Salt and hashed Password
+     * The configured iteration count stays in use whatever the calibration suggests: every instance has to hash with
+     * the same parameters, or isCurrent would fail for hashes written by another instance and logins would rehash
+     * the same rows back and forth.
+     */
+    @PostConstruct
+    public void init() {
+        if (calibrateTargetMillis > 0) {
+            int suggested = calibrate(calibrateTargetMillis);
+            LOG.info("{} needs about {} iterations for {} ms per hash on this machine; {} are configured. "
+                    + "Set myntra.password.iterations on every instance to change it", algorithm, suggested, calibrateTargetMillis, iterations);
+        }
+    }
+
+    /**
+     * This method generates Salt and hashed Password with the current hash parameters.
      *
      * @param password char array.
      * @return String array with [0] encoded salt [1] hashed password.
      */
     public String[] encrypt(final String password) {
         byte[] salt = generateSaltBytes();
-        byte[] hashedPassword = hashPassword(password.toCharArray(), salt);
+        byte[] hashedPassword = hashPassword(password.toCharArray(), salt, algorithm, iterations, keyLength);
         return new String[]{getBase64EncodedBytesAsString(salt), bytesToHex(hashedPassword)};
     }
 
     /**
-     * This method re-generates hashed Password from raw-password and salt.
-     * This will be used during authentication.
+     * This method re-generates hashed Password from raw-password and salt with the legacy hash parameters.
      *
      * @param password char array.
      * @param salt     byte array.
      * @return byte array of hashed password.
      */
     public static String encrypt(final String password, String salt) {
-        return bytesToHex(hashPassword(password.toCharArray(), getBase64DecodedStringAsBytes(salt)));
+        return encrypt(password, salt, LEGACY_ALGORITHM, LEGACY_ITERATIONS, LEGACY_KEY_LENGTH);
+    }
+
+    /**
+     * This method re-generates hashed Password from raw-password and salt with the parameters stored in the hash
+     * record. This will be used during authentication.
+     *
+     * @return hex encoded hashed password.
+     */
+    public static String encrypt(final String password, final String salt, final String algorithm, final int iterations, final int keyLength) {
+        return bytesToHex(hashPassword(password.toCharArray(), getBase64DecodedStringAsBytes(salt), algorithm, iterations, keyLength));
+    }
+
+    /**
+     * This method tells whether a hash record was created with the current parameters.
+     * Records created with other parameters should be rehashed at the next successful login.
+     */
+    public boolean isCurrent(final String algorithm, final Integer iterations, final Integer keyLength) {
+        return this.algorithm.equals(algorithm) && iterations != null && iterations == this.iterations
+                && keyLength != null && keyLength == this.keyLength;
+    }
+
+    /**
+     * This method measures the hash cost on this machine and returns the iteration count that makes one hash take
+     * about the target latency. The result is rounded to a multiple of 1000 and never falls below the legacy count.
+     */
+    public int calibrate(final long targetMillis) {
+        final char[] password = "calibration-Passw0rd!".toCharArray();
+        final byte[] salt = generateSaltBytes();
+        final int probeIterations = Math.max(iterations, LEGACY_ITERATIONS);
+        // Warm up so the measurement is not dominated by class loading and JIT compilation.
+        hashPassword(password, salt, algorithm, probeIterations, keyLength);
+        long[] samples = new long[CALIBRATION_ROUNDS];
+        for (int i = 0; i < CALIBRATION_ROUNDS; i++) {
+            long start = System.nanoTime();
+            hashPassword(password, salt, algorithm, probeIterations, keyLength);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        double nanosPerIteration = (double) samples[CALIBRATION_ROUNDS / 2] / probeIterations;
+        long target = (long) (targetMillis * 1_000_000L / nanosPerIteration);
+        long rounded = Math.max(LEGACY_ITERATIONS, (target / ITERATION_STEP) * ITERATION_STEP);
+        return (int) Math.min(Integer.MAX_VALUE, rounded);
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public int getKeyLength() {
+        return keyLength;
     }
 
     /**
@@ -64,10 +161,10 @@ public class PasswordCryptographyProvider {
      * @param salt     byte array.
      * @return byte array of hashed password.
      */
-    private static byte[] hashPassword(final char[] password, final byte[] salt) {
+    private static byte[] hashPassword(final char[] password, final byte[] salt, final String algorithm, final int iterations, final int keyLength) {
         try {
-            SecretKeyFactory skf = SecretKeyFactory.getInstance(SECRET_KEY_ALGORITHM);
-            PBEKeySpec spec = new PBEKeySpec(password, salt, HASHING_ITERATIONS, HASHING_KEY_LENGTH);
+            SecretKeyFactory skf = SecretKeyFactory.getInstance(algorithm);
+            PBEKeySpec spec = new PBEKeySpec(password, salt, iterations, keyLength);
             SecretKey key = skf.generateSecret(spec);
             byte[] res = key.getEncoded();
             return res;
@@ -94,5 +191,3 @@ public class PasswordCryptographyProvider {
         return Base64.getDecoder().decode(decode);
     }
 }
-
-
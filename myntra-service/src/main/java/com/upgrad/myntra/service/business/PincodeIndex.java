@@ -0,0 +1,150 @@
+package com.upgrad.myntra.service.business;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Pincode to state and serviceability lookup, loaded from a local reference file of inclusive pincode ranges.
+ *
+ * Every six digit pincode owns one byte of a flat array indexed by (pincode - 100000): the low seven bits hold
+ * the position of its state uuid in a small table (0 when the pincode is unknown) and the high bit is the
+ * serviceable flag. A lookup is one array read, with no boxing and no database call.
+ */
+@Component
+@ManagedResource(objectName = "com.upgrad.myntra:type=PincodeIndex")
+public class PincodeIndex {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PincodeIndex.class);
+
+    private static final int FIRST_PINCODE = 100000;
+    private static final int LAST_PINCODE = 999999;
+    private static final int STATE_MASK = 0x7F;
+    private static final int SERVICEABLE_BIT = 0x80;
+
+    @Autowired
+    private ResourceLoader resourceLoader;
+
+    @Value("${myntra.address.pincode-reference:classpath:reference/pincodes.csv}")
+    private String referenceLocation;
+
+    private volatile Table table = new Table(new byte[LAST_PINCODE - FIRST_PINCODE + 1], new UUID[]{null});
+
+    @PostConstruct
+    @ManagedOperation(description = "Reload the pincode reference file")
+    public void reload() throws IOException {
+        byte[] codes = new byte[LAST_PINCODE - FIRST_PINCODE + 1];
+        List<UUID> states = new ArrayList<>();
+        states.add(null);
+        Map<UUID, Integer> stateIndex = new HashMap<>();
+        int ranges = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                resourceLoader.getResource(referenceLocation).getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] parts = line.split(",");
+                int from = Integer.parseInt(parts[0].trim());
+                int to = Integer.parseInt(parts[1].trim());
+                UUID stateUuid = UUID.fromString(parts[2].trim());
+                boolean serviceable = Boolean.parseBoolean(parts[3].trim());
+                if (from < FIRST_PINCODE || to > LAST_PINCODE || from > to) {
+                    throw new IllegalStateException("Invalid pincode range in " + referenceLocation + ": " + line);
+                }
+                Integer index = stateIndex.get(stateUuid);
+                if (index == null) {
+                    index = states.size();
+                    if (index > STATE_MASK) {
+                        throw new IllegalStateException("Too many states in " + referenceLocation);
+                    }
+                    states.add(stateUuid);
+                    stateIndex.put(stateUuid, index);
+                }
+                byte code = (byte) (index | (serviceable ? SERVICEABLE_BIT : 0));
+                for (int pincode = from; pincode <= to; pincode++) {
+                    codes[pincode - FIRST_PINCODE] = code;
+                }
+                ranges++;
+            }
+        }
+        table = new Table(codes, states.toArray(new UUID[0]));
+        LOG.info("Pincode index loaded {} ranges over {} states", ranges, states.size() - 1);
+    }
+
+    /**
+     * @return the uuid of the state the pincode belongs to, or null when the pincode is malformed or unknown.
+     */
+    public UUID getStateUuid(String pincode) {
+        int slot = slot(pincode);
+        if (slot < 0) {
+            return null;
+        }
+        Table current = table;
+        return current.states[current.codes[slot] & STATE_MASK];
+    }
+
+    /**
+     * @return false only when the pincode is known and belongs to a different state.
+     */
+    public boolean matchesState(String pincode, UUID stateUuid) {
+        UUID expected = getStateUuid(pincode);
+        return expected == null || expected.equals(stateUuid);
+    }
+
+    /**
+     * @return true when the pincode is known and marked serviceable.
+     */
+    public boolean isServiceable(String pincode) {
+        int slot = slot(pincode);
+        return slot >= 0 && (table.codes[slot] & SERVICEABLE_BIT) != 0;
+    }
+
+    /**
+     * Parses a six digit pincode without allocating.
+     *
+     * @return its position in the code array, or -1 when it is not six digits.
+     */
+    private static int slot(String pincode) {
+        if (pincode == null || pincode.length() != 6) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = 0; i < 6; i++) {
+            char c = pincode.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value < FIRST_PINCODE ? -1 : value - FIRST_PINCODE;
+    }
+
+    private static final class Table {
+        private final byte[] codes;
+        private final UUID[] states;
+
+        private Table(byte[] codes, UUID[] states) {
+            this.codes = codes;
+            this.states = states;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.upgrad.myntra.service.business;
+
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.SignatureGenerationException;
+import com.auth0.jwt.exceptions.SignatureVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+/**
+ * HS512 signing algorithm which keeps one initialised Mac per thread instead of creating and keying a new Mac for
+ * every token. Mac instances are not thread safe, so each thread gets its own copy of the keyed prototype.
+ */
+class PooledHmacAlgorithm extends Algorithm {
+
+    private static final String MAC_ALGORITHM = "HmacSHA512";
+
+    private final ThreadLocal<Mac> macs;
+
+    PooledHmacAlgorithm(final byte[] secret) {
+        super("HS512", MAC_ALGORITHM);
+        final SecretKeySpec key = new SecretKeySpec(secret, MAC_ALGORITHM);
+        this.macs = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(MAC_ALGORITHM);
+                mac.init(key);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    @Override
+    public byte[] sign(final byte[] contentBytes) throws SignatureGenerationException {
+        try {
+            // doFinal resets the Mac, so the thread's instance is ready for the next token.
+            return macs.get().doFinal(contentBytes);
+        } catch (IllegalStateException e) {
+            throw new SignatureGenerationException(this, e);
+        }
+    }
+
+    @Override
+    public void verify(final DecodedJWT jwt) throws SignatureVerificationException {
+        final byte[] content = (jwt.getHeader() + "." + jwt.getPayload()).getBytes(StandardCharsets.UTF_8);
+        final byte[] signature = Base64.getUrlDecoder().decode(jwt.getSignature());
+        try {
+            if (!MessageDigest.isEqual(macs.get().doFinal(content), signature)) {
+                throw new SignatureVerificationException(this);
+            }
+        } catch (IllegalStateException e) {
+            throw new SignatureVerificationException(this, e);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.upgrad.myntra.service.business;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * One direction of a link table in compressed sparse row form: the distinct source ids, and for the k-th of them the
+ * range [start(k), end(k)) of its target ids, ascending and without duplicates, in one shared array.
+ */
+final class RelationIndex {
+
+    private final int[] keys;
+
+    private final int[] starts;
+
+    private final IntBuffer targets;
+
+    private RelationIndex(int[] keys, int[] starts, int[] targets) {
+        this.keys = keys;
+        this.starts = starts;
+        this.targets = IntBuffer.wrap(targets);
+    }
+
+    /**
+     * @param sources the source id of each link.
+     * @param targets the target id of each link.
+     * @param count   the number of links given.
+     */
+    static RelationIndex build(int[] sources, int[] targets, int count) {
+        long[] links = new long[count];
+        for (int i = 0; i < count; i++) {
+            links[i] = ((long) sources[i] << 32) | (targets[i] & 0xFFFFFFFFL);
+        }
+        Arrays.sort(links);
+        int distinctLinks = 0;
+        int distinctKeys = 0;
+        for (int i = 0; i < count; i++) {
+            if (i == 0 || links[i] != links[i - 1]) {
+                if (distinctLinks == 0 || (int) (links[i] >> 32) != (int) (links[distinctLinks - 1] >> 32)) {
+                    distinctKeys++;
+                }
+                links[distinctLinks++] = links[i];
+            }
+        }
+        int[] keys = new int[distinctKeys];
+        int[] starts = new int[distinctKeys + 1];
+        int[] values = new int[distinctLinks];
+        int k = -1;
+        for (int i = 0; i < distinctLinks; i++) {
+            int key = (int) (links[i] >> 32);
+            if (k < 0 || keys[k] != key) {
+                keys[++k] = key;
+                starts[k] = i;
+            }
+            values[i] = (int) links[i];
+        }
+        starts[distinctKeys] = distinctLinks;
+        return new RelationIndex(keys, starts, values);
+    }
+
+    /**
+     * @return the position of the source id among the keys, or a negative value when it has no links.
+     */
+    int find(int source) {
+        return Arrays.binarySearch(keys, source);
+    }
+
+    int start(int position) {
+        return starts[position];
+    }
+
+    int end(int position) {
+        return starts[position + 1];
+    }
+
+    /**
+     * @return the target ids of all sources; read only with absolute gets.
+     */
+    IntBuffer targets() {
+        return targets;
+    }
+
+    int count(int source) {
+        int position = find(source);
+        return position < 0 ? 0 : end(position) - start(position);
+    }
+
+    int links() {
+        return starts[keys.length];
+    }
+}
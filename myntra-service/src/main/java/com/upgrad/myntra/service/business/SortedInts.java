@@ -0,0 +1,109 @@
+package com.upgrad.myntra.service.business;
+
+import java.nio.IntBuffer;
+
+/**
+ * Intersection of ascending int ranges, over heap arrays and memory-mapped columns alike through IntBuffer's
+ * absolute reads. Nothing is allocated; matches go to a caller supplied array.
+ */
+final class SortedInts {
+
+    // Past this length ratio, searching the longer range beats walking it.
+    private static final int GALLOP_RATIO = 16;
+
+    private SortedInts() {
+    }
+
+    /**
+     * @return the number of values in both ranges, written in ascending order to out until it is full.
+     */
+    static int intersect(IntBuffer a, int aFrom, int aTo, IntBuffer b, int bFrom, int bTo, int[] out) {
+        return intersect(a, aFrom, aTo, b, bFrom, bTo, out, out.length);
+    }
+
+    static boolean intersects(IntBuffer a, int aFrom, int aTo, IntBuffer b, int bFrom, int bTo) {
+        return intersect(a, aFrom, aTo, b, bFrom, bTo, null, 1) > 0;
+    }
+
+    private static int intersect(IntBuffer a, int aFrom, int aTo, IntBuffer b, int bFrom, int bTo, int[] out, int limit) {
+        if (aTo - aFrom > bTo - bFrom) {
+            return intersect(b, bFrom, bTo, a, aFrom, aTo, out, limit);
+        }
+        if (aFrom >= aTo || limit == 0) {
+            return 0;
+        }
+        return (long) (aTo - aFrom) * GALLOP_RATIO < bTo - bFrom
+                ? gallop(a, aFrom, aTo, b, bFrom, bTo, out, limit)
+                : merge(a, aFrom, aTo, b, bFrom, bTo, out, limit);
+    }
+
+    private static int merge(IntBuffer a, int i, int aTo, IntBuffer b, int j, int bTo, int[] out, int limit) {
+        int count = 0;
+        while (i < aTo && j < bTo) {
+            int x = a.get(i);
+            int y = b.get(j);
+            if (x < y) {
+                i++;
+            } else if (x > y) {
+                j++;
+            } else {
+                if (out != null) {
+                    out[count] = x;
+                }
+                if (++count == limit) {
+                    break;
+                }
+                i++;
+                j++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Walks the short range a and finds each of its values in b by exponential then binary search, resuming from the
+     * previous match.
+     */
+    private static int gallop(IntBuffer a, int i, int aTo, IntBuffer b, int j, int bTo, int[] out, int limit) {
+        int count = 0;
+        for (; i < aTo && j < bTo; i++) {
+            int x = a.get(i);
+            j = lowerBound(b, j, bTo, x);
+            if (j < bTo && b.get(j) == x) {
+                if (out != null) {
+                    out[count] = x;
+                }
+                if (++count == limit) {
+                    break;
+                }
+                j++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return the first index in [from, to) whose value is not below x, or to.
+     */
+    private static int lowerBound(IntBuffer b, int from, int to, int x) {
+        int high = from;
+        int step = 1;
+        while (high < to && b.get(high) < x) {
+            from = high + 1;
+            high += step;
+            step <<= 1;
+        }
+        if (high > to) {
+            high = to;
+        }
+        while (from < high) {
+            int mid = (from + high) >>> 1;
+            if (b.get(mid) < x) {
+                from = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return from;
+    }
+}
@@ -0,0 +1,109 @@
+package com.upgrad.myntra.service.business;
+
+import com.upgrad.myntra.service.dao.AddressDao;
+import com.upgrad.myntra.service.entity.StateEntity;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Immutable in-memory copy of the STATE reference table, indexed by uuid.
+ * The table is loaded once at startup and replaced as a whole on refresh, which operators trigger through the
+ * "refresh" JMX operation after changing STATE rows.
+ */
+@Component
+@ManagedResource(objectName = "com.upgrad.myntra:type=StateRegistry")
+public class StateRegistry {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StateRegistry.class);
+
+    @Autowired
+    private AddressDao addressDao;
+
+    @PersistenceUnit
+    private EntityManagerFactory entityManagerFactory;
+
+    private volatile Snapshot snapshot;
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void onStartup() {
+        if (snapshot == null) {
+            refresh();
+        }
+    }
+
+    /**
+     * This method reloads every state from the database and swaps in the new table. The state rows and queries are
+     * cached without expiry, so both regions are evicted first and the reload reads the table itself.
+     */
+    @ManagedOperation(description = "Reload the STATE table")
+    public synchronized void refresh() {
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        cache.evictEntityRegion(StateEntity.class);
+        cache.evictQueryRegion(StateEntity.QUERY_REGION);
+        List<StateEntity> states = new ArrayList<>(addressDao.getAllStates());
+        states.sort(Comparator.comparing(StateEntity::getStateName, Comparator.nullsLast(Comparator.naturalOrder())));
+        Map<UUID, StateEntity> byUuid = new HashMap<>();
+        for (StateEntity state : states) {
+            byUuid.put(state.getUuid(), state);
+        }
+        snapshot = new Snapshot(Collections.unmodifiableMap(byUuid), Collections.unmodifiableList(states));
+        LOG.info("State registry loaded {} states", states.size());
+    }
+
+    /**
+     * @return the state with the uuid, or null when there is none.
+     */
+    public StateEntity getState(UUID uuid) {
+        return uuid == null ? null : current().byUuid.get(uuid);
+    }
+
+    /**
+     * @return every state ordered by name.
+     */
+    public List<StateEntity> getAllStates() {
+        return current().ordered;
+    }
+
+    @ManagedAttribute(description = "Number of states held")
+    public int getSize() {
+        return current().ordered.size();
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            refresh();
+            current = snapshot;
+        }
+        return current;
+    }
+
+    private static final class Snapshot {
+        private final Map<UUID, StateEntity> byUuid;
+        private final List<StateEntity> ordered;
+
+        private Snapshot(Map<UUID, StateEntity> byUuid, List<StateEntity> ordered) {
+            this.byUuid = byUuid;
+            this.ordered = ordered;
+        }
+    }
+}
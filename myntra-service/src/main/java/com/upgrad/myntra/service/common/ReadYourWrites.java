@@ -0,0 +1,41 @@
+package com.upgrad.myntra.service.common;
+
+/**
+ * Read-your-writes state of the current thread. Reads of a thread that is pinned to the primary database are not
+ * sent to a replica; a thread that commits a write is pinned for the rest of its request, and the web layer carries
+ * the pin over to the client's next requests until the replica has had time to catch up.
+ */
+public final class ReadYourWrites {
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private static final ThreadLocal<Boolean> WROTE = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    public static void pinToPrimary() {
+        PINNED.set(Boolean.TRUE);
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return PINNED.get() != null;
+    }
+
+    /**
+     * Records that the current thread committed a write, which also pins its following reads to the primary.
+     */
+    public static void recordWrite() {
+        WROTE.set(Boolean.TRUE);
+        PINNED.set(Boolean.TRUE);
+    }
+
+    public static boolean hasWritten() {
+        return WROTE.get() != null;
+    }
+
+    public static void clear() {
+        PINNED.remove();
+        WROTE.remove();
+    }
+}
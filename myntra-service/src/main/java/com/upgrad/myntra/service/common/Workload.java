@@ -0,0 +1,24 @@
+package com.upgrad.myntra.service.common;
+
+/**
+ * Database workloads which are served by separate connection pools, so that one slow workload cannot take the
+ * connections another one needs.
+ */
+public enum Workload {
+
+    /**
+     * Latency-critical token and credential lookups: login, logout and authorization of every secured request.
+     */
+    AUTH,
+
+    /**
+     * Brand, category and item reads.
+     */
+    CATALOG,
+
+    /**
+     * Signup, password and address changes; also the pool for anything that is not annotated.
+     */
+    WRITE
+
+}
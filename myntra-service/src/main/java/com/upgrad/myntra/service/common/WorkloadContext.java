@@ -0,0 +1,39 @@
+package com.upgrad.myntra.service.common;
+
+/**
+ * Holds the workload of the current thread, read by the routing data source when a connection is requested.
+ */
+public final class WorkloadContext {
+
+    private static final ThreadLocal<Workload> CURRENT = new ThreadLocal<>();
+
+    private WorkloadContext() {
+    }
+
+    /**
+     * @return the workload of the current thread, or {@link Workload#WRITE} when none has been set.
+     */
+    public static Workload current() {
+        Workload workload = CURRENT.get();
+        return workload == null ? Workload.WRITE : workload;
+    }
+
+    /**
+     * Sets the workload of the current thread.
+     *
+     * @return the previous workload, to be passed to {@link #restore(Workload)}; null when none was set.
+     */
+    public static Workload enter(final Workload workload) {
+        Workload previous = CURRENT.get();
+        CURRENT.set(workload);
+        return previous;
+    }
+
+    public static void restore(final Workload previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
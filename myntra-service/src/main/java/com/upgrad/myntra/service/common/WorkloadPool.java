@@ -0,0 +1,17 @@
+package com.upgrad.myntra.service.common;
+
+import java.lang.annotation.*;
+
+/**
+ * Routes the database work of the annotated method, or of every method of the annotated class, to the connection
+ * pool of the given workload. A method annotation takes precedence over the class annotation. The connection of a
+ * transaction that is already running is not switched.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface WorkloadPool {
+
+    Workload value();
+
+}
@@ -0,0 +1,43 @@
+package com.upgrad.myntra.service.common;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+
+/**
+ * Applies {@link WorkloadPool} annotations. Ordered ahead of the transaction interceptor so the workload is known
+ * before the transaction asks for a connection.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class WorkloadPoolAspect {
+
+    @Around("within(com.upgrad.myntra..*) && (@within(com.upgrad.myntra.service.common.WorkloadPool) || @annotation(com.upgrad.myntra.service.common.WorkloadPool))")
+    public Object route(final ProceedingJoinPoint joinPoint) throws Throwable {
+        Workload previous = WorkloadContext.enter(resolve(joinPoint));
+        try {
+            return joinPoint.proceed();
+        } finally {
+            WorkloadContext.restore(previous);
+        }
+    }
+
+    private Workload resolve(final ProceedingJoinPoint joinPoint) {
+        Class<?> targetClass = AopUtils.getTargetClass(joinPoint.getTarget());
+        Method method = AopUtils.getMostSpecificMethod(((MethodSignature) joinPoint.getSignature()).getMethod(), targetClass);
+        WorkloadPool pool = AnnotationUtils.findAnnotation(method, WorkloadPool.class);
+        if (pool == null) {
+            pool = AnnotationUtils.findAnnotation(targetClass, WorkloadPool.class);
+        }
+        return pool == null ? WorkloadContext.current() : pool.value();
+    }
+}
@@ -10,6 +10,7 @@ import com.upgrad.myntra.service.entity.CustomerEntity;
 import com.upgrad.myntra.service.entity.StateEntity;
 
 import java.util.List;
+import java.util.UUID;
 
 /*
  * This AddressDao interface gives the list of all the dao methods that exist in the address dao implementation class.
@@ -18,10 +19,14 @@ import java.util.List;
 public interface AddressDao {
 
     AddressEntity saveAddress(AddressEntity addressEntity);
-    AddressEntity getAddressByUUID(String addressId);
-    CustomerAddressEntity getCustomerByAddress(String addressId);
+    AddressEntity getAddressByUUID(UUID addressId);
+    CustomerAddressEntity getCustomerByAddress(UUID addressId);
     CustomerAddressEntity saveCustomerAddress(CustomerAddressEntity customerAddressEntity);
+    List<AddressEntity> saveAddresses(CustomerEntity customer, List<AddressEntity> addressEntities);
     AddressEntity deleteAddress(AddressEntity addressEntity);
+    AddressEntity markAddressDeleted(AddressEntity addressEntity);
+    int purgeDeletedAddresses(int limit);
     List<AddressEntity> getAllAddress(CustomerEntity customer);
-    StateEntity getStateByUUID(String uuid);
+    StateEntity getStateByUUID(UUID uuid);
+    List<StateEntity> getAllStates();
 }
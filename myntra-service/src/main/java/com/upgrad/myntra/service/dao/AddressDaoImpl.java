@@ -5,13 +5,20 @@ import com.upgrad.myntra.service.entity.AddressEntity;
 import com.upgrad.myntra.service.entity.CustomerAddressEntity;
 import com.upgrad.myntra.service.entity.CustomerEntity;
 import com.upgrad.myntra.service.entity.StateEntity;
+import org.hibernate.query.NativeQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
 import javax.persistence.PersistenceContext;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.util.List;
+import java.util.UUID;
 
 /**
  * AddressDao class provides the database access for all the endpoints in address controller.
@@ -25,14 +32,27 @@ public class AddressDaoImpl implements AddressDao{
     @PersistenceContext
     private EntityManager entityManager;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private static final String ALLOCATE_ADDRESS_IDS_SQL = "SELECT nextval('address_id_seq') FROM generate_series(1, ?)";
+
+    private static final String INSERT_ADDRESS_SQL = "INSERT INTO address(id, uuid, flat_buil_number, locality, city, pincode, state_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String PURGE_DELETED_ADDRESSES_SQL = "DELETE FROM address WHERE id IN (SELECT id FROM address WHERE deleted LIMIT ?1)";
+
+    private static final String INSERT_CUSTOMER_ADDRESS_SQL = "INSERT INTO customer_address(customer_id, address_id) VALUES (?, ?)";
+
     @Override
     public AddressEntity saveAddress(AddressEntity addressEntity) {
         entityManager.persist(addressEntity);
         return addressEntity;
     }
 
+    @Transactional(readOnly = true)
     @Override
-    public AddressEntity getAddressByUUID(String addressId) {
+    public AddressEntity getAddressByUUID(UUID addressId) {
         try {
             return entityManager.createNamedQuery("getAddressByUUID", AddressEntity.class).setParameter("uuid", addressId).getSingleResult();
         } catch (NoResultException nre) {
@@ -40,8 +60,9 @@ public class AddressDaoImpl implements AddressDao{
         }
     }
 
+    @Transactional(readOnly = true)
     @Override
-    public CustomerAddressEntity getCustomerByAddress(String addressId) {
+    public CustomerAddressEntity getCustomerByAddress(UUID addressId) {
         try {
             return entityManager.createNamedQuery("userByAddress", CustomerAddressEntity.class).setParameter("uuid", addressId).getSingleResult();
         } catch (NoResultException nre) {
@@ -55,12 +76,81 @@ public class AddressDaoImpl implements AddressDao{
         return customerAddressEntity;
     }
 
+    /**
+     * Inserts the addresses and their CUSTOMER_ADDRESS links as two JDBC batches in the current transaction.
+     * Ids are allocated from the address sequence in one query up front, so the link rows need no generated key
+     * round trips.
+     */
+    @Override
+    public List<AddressEntity> saveAddresses(final CustomerEntity customer, final List<AddressEntity> addressEntities) {
+        if (addressEntities.isEmpty()) {
+            return addressEntities;
+        }
+        List<Long> ids = jdbcTemplate.queryForList(ALLOCATE_ADDRESS_IDS_SQL, Long.class, addressEntities.size());
+        for (int i = 0; i < addressEntities.size(); i++) {
+            addressEntities.get(i).setId(ids.get(i).intValue());
+        }
+        jdbcTemplate.batchUpdate(INSERT_ADDRESS_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                AddressEntity address = addressEntities.get(i);
+                ps.setInt(1, address.getId());
+                ps.setObject(2, address.getUuid());
+                ps.setString(3, address.getFlatBuilNo());
+                ps.setString(4, address.getLocality());
+                ps.setString(5, address.getCity());
+                ps.setString(6, address.getPincode());
+                ps.setInt(7, address.getState().getId());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return addressEntities.size();
+            }
+        });
+        jdbcTemplate.batchUpdate(INSERT_CUSTOMER_ADDRESS_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setInt(1, customer.getId());
+                ps.setInt(2, addressEntities.get(i).getId());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return addressEntities.size();
+            }
+        });
+        return addressEntities;
+    }
+
     @Override
     public AddressEntity deleteAddress(AddressEntity addressEntity) {
         entityManager.remove(addressEntity);
         return addressEntity;
     }
 
+    @Override
+    public AddressEntity markAddressDeleted(AddressEntity addressEntity) {
+        entityManager.createNamedQuery("markAddressDeleted").setParameter("id", addressEntity.getId()).executeUpdate();
+        addressEntity.setDeleted(true);
+        return addressEntity;
+    }
+
+    /**
+     * Physically deletes up to limit tombstoned addresses; their CUSTOMER_ADDRESS rows go with them via the
+     * ON DELETE CASCADE foreign key. The query is declared to touch only the address table, so Hibernate evicts the
+     * address cache region instead of every second-level cache region.
+     *
+     * @return the number of addresses deleted.
+     */
+    @Override
+    public int purgeDeletedAddresses(int limit) {
+        return entityManager.createNativeQuery(PURGE_DELETED_ADDRESSES_SQL).unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(AddressEntity.class)
+                .setParameter(1, limit).executeUpdate();
+    }
+
+    @Transactional(readOnly = true)
     @Override
     public List<AddressEntity> getAllAddress(CustomerEntity customer){
         try {
@@ -70,12 +160,19 @@ public class AddressDaoImpl implements AddressDao{
         }
     }
 
+    @Transactional(readOnly = true)
     @Override
-    public StateEntity getStateByUUID(String uuid) {
+    public StateEntity getStateByUUID(UUID uuid) {
         try {
             return entityManager.createNamedQuery("getStateByUUID", StateEntity.class).setParameter("uuid",uuid).getSingleResult();
         } catch (NoResultException nre) {
             return null;
         }
     }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<StateEntity> getAllStates() {
+        return entityManager.createNamedQuery("getAllStates", StateEntity.class).getResultList();
+    }
 }
@@ -4,8 +4,10 @@ package com.upgrad.myntra.service.dao;
 
 
 import com.upgrad.myntra.service.entity.BrandEntity;
+import org.springframework.jdbc.core.RowCallbackHandler;
 
 import java.util.List;
+import java.util.UUID;
 
 /*
  * This BrandDao interface gives the list of all the dao methods that exist in the brand dao implementation class.
@@ -13,8 +15,10 @@ import java.util.List;
  */
 public interface BrandDao {
 
-    BrandEntity brandByUUID(String brandId);
+    BrandEntity brandByUUID(UUID brandId);
     List<BrandEntity> brandByName(String brandName);
     List<BrandEntity> brandByRating();
-    List<BrandEntity> brandByCategory(String categoryId);
+    List<BrandEntity> brandByCategory(UUID categoryId);
+    void scanBrandCategories(RowCallbackHandler handler);
+    void scanBrandItems(RowCallbackHandler handler);
 }
@@ -2,6 +2,9 @@ package com.upgrad.myntra.service.dao;
 
 
 import com.upgrad.myntra.service.entity.BrandEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -9,12 +12,13 @@ import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
 import javax.persistence.PersistenceContext;
 import java.util.List;
+import java.util.UUID;
 
 /**
  * BrandDao class provides the database access for all the endpoints in brand controller.
  */
 @Repository
-@Transactional
+@Transactional(readOnly = true)
 public class BrandDaoImpl implements BrandDao{
 
     //When a container of the application(be it a Java EE container or any other custom container like Spring) manages the lifecycle of the Entity Manager, the Entity Manager is said to be Container Managed. The most common way of acquiring a Container Managed EntityManager is to use @PersistenceContext annotation on an EntityManager attribute.
@@ -22,8 +26,15 @@ public class BrandDaoImpl implements BrandDao{
     @PersistenceContext
     private EntityManager entityManager;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private static final String SCAN_BRAND_CATEGORIES_SQL = "SELECT brand_id, category_id FROM brands_category";
+
+    private static final String SCAN_BRAND_ITEMS_SQL = "SELECT brand_id, item_id FROM brands_item";
+
     @Override
-    public BrandEntity brandByUUID(String brandId) {
+    public BrandEntity brandByUUID(UUID brandId) {
         try {
             return entityManager.createNamedQuery("brandsByUUID", BrandEntity.class).setParameter("uuid", brandId).getSingleResult();
         } catch (NoResultException nre) {
@@ -50,7 +61,7 @@ public class BrandDaoImpl implements BrandDao{
     }
 
     @Override
-    public List<BrandEntity> brandByCategory(String categoryId) {
+    public List<BrandEntity> brandByCategory(UUID categoryId) {
         try {
             return entityManager.createNamedQuery("brandsByCategory", BrandEntity.class).setParameter("uuid",categoryId).getResultList();
         } catch (NoResultException nre) {
@@ -58,4 +69,20 @@ public class BrandDaoImpl implements BrandDao{
         }
     }
 
+    /**
+     * Streams brand_id and category_id of every BRANDS_CATEGORY row to the handler.
+     */
+    @Override
+    public void scanBrandCategories(RowCallbackHandler handler) {
+        TableScan.scan(jdbcTemplate, SCAN_BRAND_CATEGORIES_SQL, handler);
+    }
+
+    /**
+     * Streams brand_id and item_id of every BRANDS_ITEM row to the handler.
+     */
+    @Override
+    public void scanBrandItems(RowCallbackHandler handler) {
+        TableScan.scan(jdbcTemplate, SCAN_BRAND_ITEMS_SQL, handler);
+    }
+
 }
@@ -0,0 +1,20 @@
+package com.upgrad.myntra.service.dao;
+
+import com.upgrad.myntra.service.entity.CatalogChangeEntity;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/*
+ * This CatalogChangeDao interface gives the list of all the dao methods that exist in the catalog change dao implementation class.
+ * The catalog change poller and the catalog versions will be calling the dao methods by this interface.
+ */
+public interface CatalogChangeDao {
+
+    long getVisibilityHorizon();
+    List<CatalogChangeEntity> getChangesAfter(long txid, long id, long horizon, int limit);
+    CatalogChangeEntity getLatestChange(List<String> tableNames, Integer entityId, long horizon);
+    CatalogChangeEntity getOldestChange();
+    int purgeChangesBefore(LocalDateTime changedAt);
+
+}
@@ -0,0 +1,85 @@
+package com.upgrad.myntra.service.dao;
+
+import com.upgrad.myntra.service.entity.CatalogChangeEntity;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.NoResultException;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * CatalogChangeDao class provides the database access for the catalog change feed.
+ */
+@Repository
+@Transactional
+public class CatalogChangeDaoImpl implements CatalogChangeDao {
+
+    // Every transaction with a smaller id has committed or rolled back, so its rows in CATALOG_CHANGE are final.
+    private static final String VISIBILITY_HORIZON_SQL = "SELECT txid_snapshot_xmin(txid_current_snapshot())";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * @return the id of the oldest transaction still running on the primary, or the next transaction id if none is.
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public long getVisibilityHorizon() {
+        return ((Number) entityManager.createNativeQuery(VISIBILITY_HORIZON_SQL).getSingleResult()).longValue();
+    }
+
+    /**
+     * @return up to limit changes positioned after (txid, id) and written by transactions older than the horizon,
+     * in the order they are to be applied.
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public List<CatalogChangeEntity> getChangesAfter(long txid, long id, long horizon, int limit) {
+        return entityManager.createNamedQuery("catalogChangesAfter", CatalogChangeEntity.class)
+                .setParameter("txid", txid).setParameter("id", id).setParameter("horizon", horizon)
+                .setMaxResults(limit).getResultList();
+    }
+
+    /**
+     * @return the last change, in feed order, to the given tables written by a transaction older than the horizon,
+     * restricted to the rows whose entity_id is entityId unless it is null; or null if there is none.
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public CatalogChangeEntity getLatestChange(List<String> tableNames, Integer entityId, long horizon) {
+        TypedQuery<CatalogChangeEntity> query = entityId == null
+                ? entityManager.createNamedQuery("latestCatalogChange", CatalogChangeEntity.class)
+                : entityManager.createNamedQuery("latestCatalogChangeOfEntity", CatalogChangeEntity.class).setParameter("entityId", entityId);
+        try {
+            return query.setParameter("tableNames", tableNames).setParameter("horizon", horizon).setMaxResults(1).getSingleResult();
+        } catch (NoResultException nre) {
+            return null;
+        }
+    }
+
+    /**
+     * @return the first change still retained, in feed order, or null if the feed is empty.
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public CatalogChangeEntity getOldestChange() {
+        try {
+            return entityManager.createNamedQuery("oldestCatalogChange", CatalogChangeEntity.class).setMaxResults(1).getSingleResult();
+        } catch (NoResultException nre) {
+            return null;
+        }
+    }
+
+    /**
+     * The newest change is always kept, so the feed is never emptied once it has recorded a change.
+     */
+    @Override
+    public int purgeChangesBefore(LocalDateTime changedAt) {
+        return entityManager.createNamedQuery("purgeCatalogChangesBefore").setParameter("changedAt", changedAt).executeUpdate();
+    }
+}
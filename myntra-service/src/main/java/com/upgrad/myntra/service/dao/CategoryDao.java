@@ -5,6 +5,7 @@ package com.upgrad.myntra.service.dao;
 import com.upgrad.myntra.service.entity.CategoryEntity;
 
 import java.util.List;
+import java.util.UUID;
 
 /*
  * This CategoryDao interface gives the list of all the dao methods that exist in the category dao implementation class.
@@ -12,7 +13,7 @@ import java.util.List;
  */
 public interface CategoryDao {
 
-    CategoryEntity getCategoryById(String categoryId);
+    CategoryEntity getCategoryById(UUID categoryId);
     List<CategoryEntity> getAllCategoriesOrderedByName();
-    List<CategoryEntity> getCategoriesByBrand(String brandId);
+    List<CategoryEntity> getCategoriesByBrand(Integer brandId);
 }
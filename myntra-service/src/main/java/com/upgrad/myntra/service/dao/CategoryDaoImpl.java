@@ -9,12 +9,13 @@ import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
 import javax.persistence.PersistenceContext;
 import java.util.List;
+import java.util.UUID;
 
 /**
  * CategoryDao class provides the database access for all the endpoints in Category controller.
  */
 @Repository
-@Transactional
+@Transactional(readOnly = true)
 public class CategoryDaoImpl implements CategoryDao{
 
     //When a container of the application(be it a Java EE container or any other custom container like Spring) manages the lifecycle of the Entity Manager, the Entity Manager is said to be Container Managed. The most common way of acquiring a Container Managed EntityManager is to use @PersistenceContext annotation on an EntityManager attribute.
@@ -23,7 +24,7 @@ public class CategoryDaoImpl implements CategoryDao{
     private EntityManager entityManager;
 
     @Override
-    public CategoryEntity getCategoryById(String categoryId){
+    public CategoryEntity getCategoryById(UUID categoryId){
         try {
             return entityManager.createNamedQuery("getCategoryById", CategoryEntity.class).setParameter("uuid", categoryId).getSingleResult();
         } catch (NoResultException nre) {
@@ -41,9 +42,9 @@ public class CategoryDaoImpl implements CategoryDao{
     }
 
     @Override
-    public List<CategoryEntity> getCategoriesByBrand(String brandId) {
+    public List<CategoryEntity> getCategoriesByBrand(Integer brandId) {
         try {
-            return entityManager.createNamedQuery("getCategoriesBybrand", CategoryEntity.class).setParameter("uuid",brandId).getResultList();
+            return entityManager.createNamedQuery("getCategoriesBybrand", CategoryEntity.class).setParameter("brandId",brandId).getResultList();
         } catch (NoResultException nre) {
             return null;
         }
@@ -5,6 +5,9 @@ package com.upgrad.myntra.service.dao;
 import com.upgrad.myntra.service.entity.CustomerAuthEntity;
 import com.upgrad.myntra.service.entity.CustomerEntity;
 
+import java.util.List;
+import java.util.Map;
+
 /*
  * This CustomerDao interface gives the list of all the dao methods that exist in the customer dao implementation class.
  * Service class will be calling the dao methods by this interface.
@@ -12,7 +15,10 @@ import com.upgrad.myntra.service.entity.CustomerEntity;
 public interface CustomerDao {
 
     CustomerEntity saveCustomer(CustomerEntity customerEntity);
+    int[] saveCustomers(List<CustomerEntity> customerEntities);
     CustomerEntity getCustomerByContactNumber(String customername);
+    Map<String, String> getUuidsByContactNumbers(List<String> contactNumbers);
+    List<Object[]> getContactNumbersAfter(Integer lastId, int maxResults);
     CustomerAuthEntity createCustomerAuth(CustomerAuthEntity customerAuthEntity);
     CustomerAuthEntity getCustomerAuthByAccesstoken(String accesstoken);
     CustomerAuthEntity updateCustomerAuth(CustomerAuthEntity customerAuthEntity);
@@ -4,12 +4,20 @@ package com.upgrad.myntra.service.dao;
 
 import com.upgrad.myntra.service.entity.CustomerAuthEntity;
 import com.upgrad.myntra.service.entity.CustomerEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
 import javax.persistence.PersistenceContext;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 
 /**
@@ -24,12 +32,47 @@ public class CustomerDaoImpl implements CustomerDao {
     @PersistenceContext
     private EntityManager entityManager;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private static final String INSERT_CUSTOMER_SQL = "INSERT INTO customer(uuid, firstname, lastname, email, contact_number, password, salt, " +
+            "hash_algorithm, hash_iterations, hash_key_length) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?) ON CONFLICT (contact_number) DO NOTHING";
 
     public CustomerEntity saveCustomer(CustomerEntity customerEntity) {
         entityManager.persist(customerEntity);
         return customerEntity;
     }
 
+    /**
+     * Inserts the customers as one JDBC batch. Rows whose contact number is already registered are skipped.
+     *
+     * @return the update count of every customer, 0 for skipped rows.
+     */
+    public int[] saveCustomers(final List<CustomerEntity> customerEntities) {
+        return jdbcTemplate.batchUpdate(INSERT_CUSTOMER_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                CustomerEntity customer = customerEntities.get(i);
+                ps.setString(1, customer.getUuid());
+                ps.setString(2, customer.getFirstName());
+                ps.setString(3, customer.getLastName());
+                ps.setString(4, customer.getEmail());
+                ps.setString(5, customer.getContactNumber());
+                ps.setString(6, customer.getPassword());
+                ps.setString(7, customer.getSalt());
+                ps.setString(8, customer.getHashAlgorithm());
+                ps.setInt(9, customer.getHashIterations());
+                ps.setInt(10, customer.getHashKeyLength());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return customerEntities.size();
+            }
+        });
+    }
+
+    @Transactional(readOnly = true)
     public CustomerEntity getCustomerByContactNumber(String contactNumber) {
         try {
             return entityManager.createNamedQuery("customerByContactNumber", CustomerEntity.class).setParameter("contactNumber", contactNumber).getSingleResult();
@@ -38,6 +81,31 @@ public class CustomerDaoImpl implements CustomerDao {
         }
     }
 
+    /**
+     * Returns the uuid of every registered customer among the contact numbers, keyed by contact number.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, String> getUuidsByContactNumbers(List<String> contactNumbers) {
+        Map<String, String> uuids = new HashMap<>();
+        if (contactNumbers.isEmpty()) {
+            return uuids;
+        }
+        for (Object[] row : entityManager.createNamedQuery("uuidsByContactNumbers", Object[].class).setParameter("contactNumbers", contactNumbers).getResultList()) {
+            uuids.put((String) row[0], (String) row[1]);
+        }
+        return uuids;
+    }
+
+    /**
+     * Returns the id and contact number of up to maxResults customers with an id above lastId, in id order, so each
+     * page starts from the primary key index where the previous one ended.
+     */
+    @Transactional(readOnly = true)
+    public List<Object[]> getContactNumbersAfter(Integer lastId, int maxResults) {
+        return entityManager.createNamedQuery("contactNumbersAfter", Object[].class).setParameter("lastId", lastId).setMaxResults(maxResults).getResultList();
+    }
+
+    @Transactional(readOnly = true)
     public CustomerEntity getCustomerById(Integer id) {
         try {
             return entityManager.createNamedQuery("customerById", CustomerEntity.class).setParameter("id", id).getSingleResult();
@@ -52,6 +120,7 @@ public class CustomerDaoImpl implements CustomerDao {
     }
 
 
+    @Transactional(readOnly = true)
     public CustomerAuthEntity getCustomerAuthByAccesstoken(String accesstoken) {
         try {
             return entityManager.createNamedQuery("customerAuthByAccesstoken", CustomerAuthEntity.class).setParameter("accesstoken", accesstoken).getSingleResult();
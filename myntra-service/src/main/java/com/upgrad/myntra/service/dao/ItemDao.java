@@ -1,6 +1,7 @@
 package com.upgrad.myntra.service.dao;
 
 import com.upgrad.myntra.service.entity.ItemEntity;
+import org.springframework.jdbc.core.RowCallbackHandler;
 
 import java.util.List;
 
@@ -10,5 +11,10 @@ import java.util.List;
  */
 public interface ItemDao {
 
-    List<ItemEntity> getItemsByCategoryAndBrand(String brandId, String categoryId);
+    List<ItemEntity> getItemsByCategoryAndBrand(Integer brandId, Integer categoryId);
+    List<ItemEntity> getItemsByCategoryAndPrice(Integer categoryId, int minPrice, int maxPrice, boolean descending, int afterPrice, int afterId, int limit);
+    List<ItemEntity> getItemsByBrandAndPrice(Integer brandId, int minPrice, int maxPrice, boolean descending, int afterPrice, int afterId, int limit);
+    void scanItemRecordsAfter(String afterName, int afterId, int limit, RowCallbackHandler handler);
+    void scanItemCategories(RowCallbackHandler handler);
+    void scanItemCategoriesAfter(int afterItemId, int afterCategoryId, int limit, RowCallbackHandler handler);
 }
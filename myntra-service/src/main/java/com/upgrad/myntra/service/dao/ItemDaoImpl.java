@@ -2,7 +2,11 @@ package com.upgrad.myntra.service.dao;
 
 
 import com.upgrad.myntra.service.entity.ItemEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
@@ -13,6 +17,7 @@ import java.util.List;
  * ItemDao class provides the database access for all the endpoints in Item controller.
  */
 @Repository
+@Transactional(readOnly = true)
 public class ItemDaoImpl implements ItemDao{
 
     //When a container of the application(be it a Java EE container or any other custom container like Spring) manages the lifecycle of the Entity Manager, the Entity Manager is said to be Container Managed. The most common way of acquiring a Container Managed EntityManager is to use @PersistenceContext annotation on an EntityManager attribute.
@@ -20,9 +25,23 @@ public class ItemDaoImpl implements ItemDao{
     @PersistenceContext
     private EntityManager entityManager;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // In the order of getItemsByCategoryAndbrand, so the rows of any subset of items are already sorted by name.
+    // The row comparison follows item_name_id_idx, so every chunk is one short index range scan.
+    private static final String SCAN_ITEM_RECORDS_AFTER_SQL = "SELECT i.id, i.uuid, i.item_name, i.price, " +
+            "(SELECT min(bi.brand_id) FROM brands_item bi WHERE bi.item_id = i.id) AS brand_id " +
+            "FROM item i WHERE (i.item_name, i.id) > (?, ?) ORDER BY i.item_name, i.id LIMIT ?";
+
+    private static final String SCAN_ITEM_CATEGORIES_SQL = "SELECT item_id, category_id FROM category_item";
+
+    private static final String SCAN_ITEM_CATEGORIES_AFTER_SQL = "SELECT item_id, category_id FROM category_item " +
+            "WHERE (item_id, category_id) > (?, ?) ORDER BY item_id, category_id LIMIT ?";
+
 
     @Override
-    public List<ItemEntity> getItemsByCategoryAndBrand(String brandId, String categoryId) {
+    public List<ItemEntity> getItemsByCategoryAndBrand(Integer brandId, Integer categoryId) {
         try {
             return entityManager.createNamedQuery("getItemsByCategoryAndbrand", ItemEntity.class).setParameter("brandId", brandId).setParameter("categoryId", categoryId).getResultList();
         } catch (NoResultException nre) {
@@ -30,4 +49,59 @@ public class ItemDaoImpl implements ItemDao{
         }
     }
 
+    /**
+     * Returns up to limit items of the category priced within [minPrice, maxPrice], in price then id order, starting
+     * after the (afterPrice, afterId) position of the previous page.
+     */
+    @Override
+    public List<ItemEntity> getItemsByCategoryAndPrice(Integer categoryId, int minPrice, int maxPrice, boolean descending, int afterPrice, int afterId, int limit) {
+        return getItemsByPrice(descending ? "itemsByCategoryAndPriceDesc" : "itemsByCategoryAndPrice", categoryId, minPrice, maxPrice, afterPrice, afterId, limit);
+    }
+
+    /**
+     * Returns up to limit items of the brand priced within [minPrice, maxPrice], in price then id order, starting
+     * after the (afterPrice, afterId) position of the previous page.
+     */
+    @Override
+    public List<ItemEntity> getItemsByBrandAndPrice(Integer brandId, int minPrice, int maxPrice, boolean descending, int afterPrice, int afterId, int limit) {
+        return getItemsByPrice(descending ? "itemsByBrandAndPriceDesc" : "itemsByBrandAndPrice", brandId, minPrice, maxPrice, afterPrice, afterId, limit);
+    }
+
+    private List<ItemEntity> getItemsByPrice(String queryName, Integer ownerId, int minPrice, int maxPrice, int afterPrice, int afterId, int limit) {
+        try {
+            return entityManager.createNamedQuery(queryName, ItemEntity.class).setParameter("ownerId", ownerId)
+                    .setParameter("minPrice", minPrice).setParameter("maxPrice", maxPrice)
+                    .setParameter("afterPrice", afterPrice).setParameter("afterId", afterId)
+                    .setParameter("limit", limit).getResultList();
+        } catch (NoResultException nre) {
+            return null;
+        }
+    }
+
+    /**
+     * Streams id, uuid, item_name, price and brand_id (null when the item has no brand) of up to limit items
+     * positioned after (afterName, afterId) in name order, to the handler; ("", Integer.MIN_VALUE) for the first chunk.
+     */
+    @Override
+    public void scanItemRecordsAfter(String afterName, int afterId, int limit, RowCallbackHandler handler) {
+        jdbcTemplate.query(SCAN_ITEM_RECORDS_AFTER_SQL, handler, afterName, afterId, limit);
+    }
+
+    /**
+     * Streams item_id and category_id of every CATEGORY_ITEM row to the handler.
+     */
+    @Override
+    public void scanItemCategories(RowCallbackHandler handler) {
+        TableScan.scan(jdbcTemplate, SCAN_ITEM_CATEGORIES_SQL, handler);
+    }
+
+    /**
+     * Streams item_id and category_id of up to limit CATEGORY_ITEM rows positioned after (afterItemId,
+     * afterCategoryId), in that order, to the handler.
+     */
+    @Override
+    public void scanItemCategoriesAfter(int afterItemId, int afterCategoryId, int limit, RowCallbackHandler handler) {
+        jdbcTemplate.query(SCAN_ITEM_CATEGORIES_AFTER_SQL, handler, afterItemId, afterCategoryId, limit);
+    }
+
 }
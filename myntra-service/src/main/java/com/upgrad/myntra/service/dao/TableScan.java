@@ -0,0 +1,26 @@
+package com.upgrad.myntra.service.dao;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.PreparedStatement;
+
+/**
+ * Streams every row of a query to a handler, for the DAOs that load whole link tables into memory.
+ */
+final class TableScan {
+
+    // Rows are streamed rather than fetched whole, which needs the surrounding transaction to keep the cursor open.
+    private static final int FETCH_SIZE = 10000;
+
+    private TableScan() {
+    }
+
+    static void scan(final JdbcTemplate jdbcTemplate, final String sql, final RowCallbackHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, handler);
+    }
+}
@@ -1,8 +1,13 @@
 package com.upgrad.myntra.service.entity;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Type;
+
 import javax.persistence.*;
 import javax.validation.constraints.NotNull;
 import java.io.Serializable;
+import java.util.UUID;
 
 /**
  * AddressEntity class contains all the attributes to be mapped to all the fields in address table in the database.
@@ -10,11 +15,14 @@ import java.io.Serializable;
  */
 @Entity
 @Table(name = "address")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "address")
 @NamedQueries({
         @NamedQuery(name = "getAllAddress", query = "select b from CustomerAddressEntity a inner join a.address b where " +
-                "a.customer = :customer order by b.id desc"),
+                "a.customer = :customer and b.deleted = false order by b.id desc"),
         @NamedQuery(name = "getAddressByUUID", query = "select b from CustomerAddressEntity a inner join a.address b where " +
-                "b.uuid = :uuid")
+                "b.uuid = :uuid and b.deleted = false"),
+        @NamedQuery(name = "markAddressDeleted", query = "update AddressEntity a set a.deleted = true where a.id = :id")
 })
 public class AddressEntity implements Serializable {
 
@@ -22,8 +30,9 @@ public class AddressEntity implements Serializable {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer id;
 
-    @Column(name = "UUID", length = 64, nullable = false)
-    private String uuid;
+    @Column(name = "UUID", nullable = false)
+    @Type(type = "pg-uuid")
+    private UUID uuid;
 
     @Column(name = "flat_buil_number", nullable = false)
     private String flatBuilNo;
@@ -41,7 +50,10 @@ public class AddressEntity implements Serializable {
     @NotNull
     private StateEntity state;
 
-    public AddressEntity(String uuid, String flatBuilNo, String locality, String city, String pincode, StateEntity state) {
+    @Column(nullable = false)
+    private boolean deleted;
+
+    public AddressEntity(UUID uuid, String flatBuilNo, String locality, String city, String pincode, StateEntity state) {
         this.uuid = uuid;
         this.flatBuilNo = flatBuilNo;
         this.locality = locality;
@@ -61,11 +73,11 @@ public class AddressEntity implements Serializable {
         this.id = id;
     }
 
-    public String getUuid() {
+    public UUID getUuid() {
         return uuid;
     }
 
-    public void setUuid(String uuid) {
+    public void setUuid(UUID uuid) {
         this.uuid = uuid;
     }
 
@@ -109,4 +121,12 @@ public class AddressEntity implements Serializable {
         this.state = state;
     }
 
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(boolean deleted) {
+        this.deleted = deleted;
+    }
+
 }
@@ -2,10 +2,16 @@ package com.upgrad.myntra.service.entity;
 
 
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.QueryHints;
+import org.hibernate.annotations.Type;
+
 import javax.persistence.*;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 /**
  * BrandEntity class contains all the attributes to be mapped to all the fields in brands table in the database.
@@ -13,14 +19,24 @@ import java.util.List;
  */
 @Entity
 @Table(name = "brands")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "catalog.brand")
 @NamedQueries({
 		@NamedQuery(name = "brandsByName", query = "select b from BrandEntity b where UPPER" +
-				"(b.brandName) LIKE concat('%',UPPER(:brandName),'%') ORDER BY b.brandName ASC"),
-		@NamedQuery(name = "brandsByRating", query = "select b from BrandEntity b ORDER BY b.customerRating DESC"),
-		@NamedQuery(name = "brandsByUUID", query = "select b from BrandEntity b where b.uuid = :uuid"),
+				"(b.brandName) LIKE concat('%',UPPER(:brandName),'%') ORDER BY b.brandName ASC",
+				hints = {@QueryHint(name = QueryHints.CACHEABLE, value = "true"),
+						@QueryHint(name = QueryHints.CACHE_REGION, value = "catalog.query")}),
+		@NamedQuery(name = "brandsByRating", query = "select b from BrandEntity b ORDER BY b.customerRating DESC",
+				hints = {@QueryHint(name = QueryHints.CACHEABLE, value = "true"),
+						@QueryHint(name = QueryHints.CACHE_REGION, value = "catalog.query")}),
+		@NamedQuery(name = "brandsByUUID", query = "select b from BrandEntity b where b.uuid = :uuid",
+				hints = {@QueryHint(name = QueryHints.CACHEABLE, value = "true"),
+						@QueryHint(name = QueryHints.CACHE_REGION, value = "catalog.query")}),
 		@NamedQuery(name = "brandsByCategory", query = "select distinct b FROM BrandEntity b " +
 				"INNER JOIN b.categories c WHERE c.uuid = :uuid " +
-				"ORDER BY b.brandName ASC")
+				"ORDER BY b.brandName ASC",
+				hints = {@QueryHint(name = QueryHints.CACHEABLE, value = "true"),
+						@QueryHint(name = QueryHints.CACHE_REGION, value = "catalog.query")})
 })
 public class BrandEntity implements Serializable {
 
@@ -28,8 +44,9 @@ public class BrandEntity implements Serializable {
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	private Integer id;
 
-	@Column(name = "UUID", length = 64, nullable = false)
-	private String uuid;
+	@Column(name = "UUID", nullable = false)
+	@Type(type = "pg-uuid")
+	private UUID uuid;
 
 	@Column(name = "brand_name", nullable = false)
 	private String brandName;
@@ -43,10 +60,12 @@ public class BrandEntity implements Serializable {
 	@OneToOne
 	private AddressEntity address;
 
+	@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "catalog.association")
 	@OneToMany
 	@JoinTable(name = "brands_item", joinColumns = @JoinColumn(name = "brand_id"), inverseJoinColumns = @JoinColumn(name = "item_id"))
 	private List<ItemEntity> items = new ArrayList<>();
 
+	@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "catalog.association")
 	@ManyToMany
 	@JoinTable(name = "brands_category", joinColumns = @JoinColumn(name = "brand_id"), inverseJoinColumns = @JoinColumn(name = "category_id"))
 	private List<CategoryEntity> categories = new ArrayList<>();
@@ -62,11 +81,11 @@ public class BrandEntity implements Serializable {
 		this.id = id;
 	}
 
-	public String getUuid() {
+	public UUID getUuid() {
 		return uuid;
 	}
 
-	public void setUuid(String uuid) {
+	public void setUuid(UUID uuid) {
 		this.uuid = uuid;
 	}
 
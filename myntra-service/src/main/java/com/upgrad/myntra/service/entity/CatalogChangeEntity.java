@@ -0,0 +1,120 @@
+package com.upgrad.myntra.service.entity;
+
+import org.hibernate.annotations.Type;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * CatalogChangeEntity class contains all the attributes to be mapped to all the fields in catalog_change table in the database.
+ * Rows are written by the catalog table triggers only; the application reads and purges them.
+ */
+@Entity
+@Table(name = "catalog_change")
+@NamedQueries({
+        @NamedQuery(name = "catalogChangesAfter", query = "select c from CatalogChangeEntity c where " +
+                "(c.txid > :txid or (c.txid = :txid and c.id > :id)) and c.txid < :horizon order by c.txid asc, c.id asc"),
+        @NamedQuery(name = "latestCatalogChange", query = "select c from CatalogChangeEntity c where " +
+                "c.tableName in :tableNames and c.txid < :horizon order by c.txid desc, c.id desc"),
+        @NamedQuery(name = "latestCatalogChangeOfEntity", query = "select c from CatalogChangeEntity c where " +
+                "c.tableName in :tableNames and c.entityId = :entityId and c.txid < :horizon order by c.txid desc, c.id desc"),
+        @NamedQuery(name = "oldestCatalogChange", query = "select c from CatalogChangeEntity c order by c.txid asc, c.id asc"),
+        @NamedQuery(name = "purgeCatalogChangesBefore", query = "delete from CatalogChangeEntity c where c.changedAt < :changedAt " +
+                "and c.id < (select max(n.id) from CatalogChangeEntity n)")
+})
+public class CatalogChangeEntity implements Serializable {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private Long txid;
+
+    @Column(name = "table_name", nullable = false)
+    private String tableName;
+
+    @Column(nullable = false)
+    private String operation;
+
+    @Column(name = "entity_id", nullable = false)
+    private Integer entityId;
+
+    @Column(name = "related_id")
+    private Integer relatedId;
+
+    @Column(name = "entity_uuid")
+    @Type(type = "pg-uuid")
+    private UUID entityUuid;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+
+    public CatalogChangeEntity() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getTxid() {
+        return txid;
+    }
+
+    public void setTxid(Long txid) {
+        this.txid = txid;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public void setTableName(String tableName) {
+        this.tableName = tableName;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public void setOperation(String operation) {
+        this.operation = operation;
+    }
+
+    public Integer getEntityId() {
+        return entityId;
+    }
+
+    public void setEntityId(Integer entityId) {
+        this.entityId = entityId;
+    }
+
+    public Integer getRelatedId() {
+        return relatedId;
+    }
+
+    public void setRelatedId(Integer relatedId) {
+        this.relatedId = relatedId;
+    }
+
+    public UUID getEntityUuid() {
+        return entityUuid;
+    }
+
+    public void setEntityUuid(UUID entityUuid) {
+        this.entityUuid = entityUuid;
+    }
+
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+
+    public void setChangedAt(LocalDateTime changedAt) {
+        this.changedAt = changedAt;
+    }
+}
@@ -2,10 +2,16 @@ package com.upgrad.myntra.service.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.QueryHints;
+import org.hibernate.annotations.Type;
+
 import javax.persistence.*;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 /**
  * CategoryEntity class contains all the attributes to be mapped to all the fields in category table in the database.
@@ -13,11 +19,19 @@ import java.util.List;
  */
 @Entity
 @Table(name = "category")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "catalog.category")
 @NamedQueries({
-        @NamedQuery(name = "getAllCategoriesOrderedByName", query = "select c from CategoryEntity c order by c.categoryName ASC"),
+        @NamedQuery(name = "getAllCategoriesOrderedByName", query = "select c from CategoryEntity c order by c.categoryName ASC",
+                hints = {@QueryHint(name = QueryHints.CACHEABLE, value = "true"),
+                        @QueryHint(name = QueryHints.CACHE_REGION, value = "catalog.query")}),
         @NamedQuery(name = "getCategoryById", query = "select c from CategoryEntity c where " +
-                "c.uuid = :uuid"),
-        @NamedQuery(name = "getCategoriesBybrand", query = "select c from CategoryEntity c inner join c.brands s where s.uuid = :uuid order by c.categoryName")
+                "c.uuid = :uuid",
+                hints = {@QueryHint(name = QueryHints.CACHEABLE, value = "true"),
+                        @QueryHint(name = QueryHints.CACHE_REGION, value = "catalog.query")}),
+        @NamedQuery(name = "getCategoriesBybrand", query = "select c from CategoryEntity c inner join c.brands s where s.id = :brandId order by c.categoryName",
+                hints = {@QueryHint(name = QueryHints.CACHEABLE, value = "true"),
+                        @QueryHint(name = QueryHints.CACHE_REGION, value = "catalog.query")})
 })
 public class CategoryEntity implements Serializable {
 
@@ -25,16 +39,19 @@ public class CategoryEntity implements Serializable {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer id;
 
-    @Column(name = "UUID", length = 64, nullable = false)
-    private String uuid;
+    @Column(name = "UUID", nullable = false)
+    @Type(type = "pg-uuid")
+    private UUID uuid;
 
     @Column(name = "category_name", nullable = false)
     private String categoryName;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "catalog.association")
     @ManyToMany
     @JoinTable(name = "category_item", joinColumns = @JoinColumn(name = "category_id"), inverseJoinColumns = @JoinColumn(name = "item_id"))
     private List<ItemEntity> items = new ArrayList<>();
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "catalog.association")
     @JsonIgnore
     @ManyToMany
     @JoinTable(name = "brands_category", joinColumns = @JoinColumn(name = "category_id"), inverseJoinColumns = @JoinColumn(name = "brand_id"))
@@ -51,11 +68,11 @@ public class CategoryEntity implements Serializable {
         this.id = id;
     }
 
-    public String getUuid() {
+    public UUID getUuid() {
         return uuid;
     }
 
-    public void setUuid(String uuid) {
+    public void setUuid(UUID uuid) {
         this.uuid = uuid;
     }
 
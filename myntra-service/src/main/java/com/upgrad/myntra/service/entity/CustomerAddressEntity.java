@@ -14,7 +14,7 @@ import java.io.Serializable;
 @Entity
 @Table(name = "customer_address")
 @NamedQuery(name = "userByAddress", query = "select a from CustomerAddressEntity a inner join a.address b where " +
-        "b.uuid = :uuid")
+        "b.uuid = :uuid and b.deleted = false")
 public class CustomerAddressEntity implements Serializable {
 
 
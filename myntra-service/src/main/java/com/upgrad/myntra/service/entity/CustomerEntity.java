@@ -14,7 +14,9 @@ import java.io.Serializable;
 @NamedQueries({
         @NamedQuery(name = "customerByContactNumber", query = "select c from CustomerEntity c where " +
                 "c.contactNumber = :contactNumber"),
-        @NamedQuery(name = "customerById", query = "select c from CustomerEntity c where c.id =:id")
+        @NamedQuery(name = "customerById", query = "select c from CustomerEntity c where c.id =:id"),
+        @NamedQuery(name = "uuidsByContactNumbers", query = "select c.contactNumber, c.uuid from CustomerEntity c where c.contactNumber in :contactNumbers"),
+        @NamedQuery(name = "contactNumbersAfter", query = "select c.id, c.contactNumber from CustomerEntity c where c.id > :lastId order by c.id")
 })
 public class CustomerEntity implements Serializable {
 
@@ -44,6 +46,18 @@ public class CustomerEntity implements Serializable {
     @Column(name = "salt",length = 200, nullable = false)
     private String salt;
 
+    @Column(name = "hash_algorithm", length = 50)
+    @JsonIgnore
+    private String hashAlgorithm;
+
+    @Column(name = "hash_iterations")
+    @JsonIgnore
+    private Integer hashIterations;
+
+    @Column(name = "hash_key_length")
+    @JsonIgnore
+    private Integer hashKeyLength;
+
     public CustomerEntity() {
     }
 
@@ -119,4 +133,28 @@ public class CustomerEntity implements Serializable {
     public void setSalt(String salt) {
         this.salt = salt;
     }
+
+    public String getHashAlgorithm() {
+        return hashAlgorithm;
+    }
+
+    public void setHashAlgorithm(String hashAlgorithm) {
+        this.hashAlgorithm = hashAlgorithm;
+    }
+
+    public Integer getHashIterations() {
+        return hashIterations;
+    }
+
+    public void setHashIterations(Integer hashIterations) {
+        this.hashIterations = hashIterations;
+    }
+
+    public Integer getHashKeyLength() {
+        return hashKeyLength;
+    }
+
+    public void setHashKeyLength(Integer hashKeyLength) {
+        this.hashKeyLength = hashKeyLength;
+    }
 }
@@ -2,10 +2,16 @@ package com.upgrad.myntra.service.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.QueryHints;
+import org.hibernate.annotations.Type;
+
 import javax.persistence.*;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 /**
  * ItemEntity class contains all the attributes to be mapped to all the fields in item table in the database.
@@ -13,8 +19,32 @@ import java.util.List;
  */
 @Entity
 @Table(name = "item")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "catalog.item")
 @NamedQueries({
-        @NamedQuery(name = "getItemsByCategoryAndbrand", query = "select i from ItemEntity i inner join i.categories c where i.brand.uuid = :brandId and c.uuid= :categoryId order by i.itemName asc")
+        @NamedQuery(name = "getItemsByCategoryAndbrand", query = "select i from ItemEntity i inner join i.categories c where i.brand.id = :brandId and c.id = :categoryId order by i.itemName asc",
+                hints = {@QueryHint(name = QueryHints.CACHEABLE, value = "true"),
+                        @QueryHint(name = QueryHints.CACHE_REGION, value = "catalog.query")}),
+        @NamedQuery(name = "itemsByCategoryUuid", query = "select i from ItemEntity i inner join i.categories c where c.uuid = :categoryId order by i.itemName asc")
+})
+// Keyset pages by price read the price copied into the join table, so the filter, the order and the position after
+// the previous page are all one range of the (owner, item_price, item_id) index. The brand of the item is mapped
+// through BRANDS_ITEM, so every query selects its brand_id next to the item columns.
+@NamedNativeQueries({
+        @NamedNativeQuery(name = "itemsByCategoryAndPrice", resultClass = ItemEntity.class, query = "SELECT i.*, (SELECT min(b.brand_id) FROM brands_item b WHERE b.item_id = i.id) AS brand_id " +
+                "FROM category_item ci INNER JOIN item i ON i.id = ci.item_id " +
+                "WHERE ci.category_id = :ownerId AND ci.item_price BETWEEN :minPrice AND :maxPrice AND (ci.item_price, ci.item_id) > (:afterPrice, :afterId) " +
+                "ORDER BY ci.item_price ASC, ci.item_id ASC LIMIT :limit"),
+        @NamedNativeQuery(name = "itemsByCategoryAndPriceDesc", resultClass = ItemEntity.class, query = "SELECT i.*, (SELECT min(b.brand_id) FROM brands_item b WHERE b.item_id = i.id) AS brand_id " +
+                "FROM category_item ci INNER JOIN item i ON i.id = ci.item_id " +
+                "WHERE ci.category_id = :ownerId AND ci.item_price BETWEEN :minPrice AND :maxPrice AND (ci.item_price, ci.item_id) < (:afterPrice, :afterId) " +
+                "ORDER BY ci.item_price DESC, ci.item_id DESC LIMIT :limit"),
+        @NamedNativeQuery(name = "itemsByBrandAndPrice", resultClass = ItemEntity.class, query = "SELECT i.*, bi.brand_id FROM brands_item bi INNER JOIN item i ON i.id = bi.item_id " +
+                "WHERE bi.brand_id = :ownerId AND bi.item_price BETWEEN :minPrice AND :maxPrice AND (bi.item_price, bi.item_id) > (:afterPrice, :afterId) " +
+                "ORDER BY bi.item_price ASC, bi.item_id ASC LIMIT :limit"),
+        @NamedNativeQuery(name = "itemsByBrandAndPriceDesc", resultClass = ItemEntity.class, query = "SELECT i.*, bi.brand_id FROM brands_item bi INNER JOIN item i ON i.id = bi.item_id " +
+                "WHERE bi.brand_id = :ownerId AND bi.item_price BETWEEN :minPrice AND :maxPrice AND (bi.item_price, bi.item_id) < (:afterPrice, :afterId) " +
+                "ORDER BY bi.item_price DESC, bi.item_id DESC LIMIT :limit")
 })
 public class ItemEntity implements Serializable {
 
@@ -22,8 +52,9 @@ public class ItemEntity implements Serializable {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer id;
 
-    @Column(name = "UUID", length = 64, nullable = false)
-    private String uuid;
+    @Column(name = "UUID", nullable = false)
+    @Type(type = "pg-uuid")
+    private UUID uuid;
 
     @Column(name = "item_name",nullable = false)
     private String itemName;
@@ -36,6 +67,7 @@ public class ItemEntity implements Serializable {
     @JoinTable(name = "brands_item", joinColumns = @JoinColumn(name = "item_id"), inverseJoinColumns = @JoinColumn(name = "brand_id"))
     private BrandEntity brand;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "catalog.association")
     @JsonIgnore
     @ManyToMany
     @JoinTable(name = "category_item", joinColumns = @JoinColumn(name = "item_id"), inverseJoinColumns = @JoinColumn(name = "category_id"))
@@ -53,11 +85,11 @@ public class ItemEntity implements Serializable {
         this.id = id;
     }
 
-    public String getUuid() {
+    public UUID getUuid() {
         return uuid;
     }
 
-    public void setUuid(String uuid) {
+    public void setUuid(UUID uuid) {
         this.uuid = uuid;
     }
 
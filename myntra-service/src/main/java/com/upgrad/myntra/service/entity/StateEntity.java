@@ -1,7 +1,13 @@
 package com.upgrad.myntra.service.entity;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.QueryHints;
+import org.hibernate.annotations.Type;
+
 import javax.persistence.*;
 import java.io.Serializable;
+import java.util.UUID;
 
 /**
  * StateEntity class contains all the attributes to be mapped to all the fields in state table in the database.
@@ -9,18 +15,27 @@ import java.io.Serializable;
  */
 @Entity
 @Table(name = "state")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "reference.state")
 @NamedQueries({
-        @NamedQuery(name = "getStateByUUID", query = "select s from StateEntity s where s.uuid =:uuid"),
-        @NamedQuery(name = "getAllStates", query = "select s from StateEntity s")
+        @NamedQuery(name = "getStateByUUID", query = "select s from StateEntity s where s.uuid =:uuid",
+                hints = {@QueryHint(name = QueryHints.CACHEABLE, value = "true"),
+                        @QueryHint(name = QueryHints.CACHE_REGION, value = StateEntity.QUERY_REGION)}),
+        @NamedQuery(name = "getAllStates", query = "select s from StateEntity s",
+                hints = {@QueryHint(name = QueryHints.CACHEABLE, value = "true"),
+                        @QueryHint(name = QueryHints.CACHE_REGION, value = StateEntity.QUERY_REGION)})
 })
 public class StateEntity implements Serializable {
 
+    public static final String QUERY_REGION = "reference.state.query";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer id;
 
-    @Column(name = "UUID", length = 64, nullable = false)
-    private String uuid;
+    @Column(name = "UUID", nullable = false)
+    @Type(type = "pg-uuid")
+    private UUID uuid;
 
     @Column(name = "state_name", nullable = false)
     private String stateName;
@@ -28,7 +43,7 @@ public class StateEntity implements Serializable {
     public StateEntity() {
     }
 
-    public StateEntity(String uuid, String stateName) {
+    public StateEntity(UUID uuid, String stateName) {
         this.uuid = uuid;
         this.stateName = stateName;
     }
@@ -41,11 +56,11 @@ public class StateEntity implements Serializable {
         this.id = id;
     }
 
-    public String getUuid() {
+    public UUID getUuid() {
         return uuid;
     }
 
-    public void setUuid(String uuid) {
+    public void setUuid(UUID uuid) {
         this.uuid = uuid;
     }
 
@@ -0,0 +1,73 @@
+package com.upgrad.myntra.service.dao;
+
+import com.upgrad.myntra.service.entity.ItemEntity;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Runs the keyset price pages of ItemDaoImpl against an in-memory database in PostgreSQL mode, so the native queries
+ * are mapped onto ItemEntity exactly as in production.
+ */
+@RunWith(SpringRunner.class)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:catalog;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQL9Dialect",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.hibernate.ddl-auto=none"})
+@Sql("/sql/item_price_pages.sql")
+public class ItemDaoImplTest {
+
+    @Configuration
+    @AutoConfigurationPackage
+    @EntityScan(basePackageClasses = ItemEntity.class)
+    @Import(ItemDaoImpl.class)
+    static class DaoConfiguration {
+    }
+
+    @Autowired
+    private ItemDao itemDao;
+
+    @Test
+    public void categoryPagesFollowPriceThenIdWithTheBrandOfEachItem() {
+        List<ItemEntity> first = itemDao.getItemsByCategoryAndPrice(1, Integer.MIN_VALUE, Integer.MAX_VALUE, false,
+                Integer.MIN_VALUE, Integer.MIN_VALUE, 2);
+        assertEquals(Arrays.asList(5, 4), ids(first));
+        assertNull(first.get(0).getbrand());
+        assertEquals(Integer.valueOf(2), first.get(1).getbrand().getId());
+
+        List<ItemEntity> second = itemDao.getItemsByCategoryAndPrice(1, Integer.MIN_VALUE, Integer.MAX_VALUE, false,
+                400, 4, 2);
+        assertEquals(Arrays.asList(2, 1), ids(second));
+        assertEquals(Integer.valueOf(1), second.get(0).getbrand().getId());
+    }
+
+    @Test
+    public void brandPageInDescendingOrderStaysWithinThePriceRange() {
+        List<ItemEntity> page = itemDao.getItemsByBrandAndPrice(1, 1000, 2000, true, Integer.MAX_VALUE, Integer.MAX_VALUE, 20);
+        assertEquals(Arrays.asList(3, 1), ids(page));
+        assertEquals(Integer.valueOf(1), page.get(0).getbrand().getId());
+    }
+
+    private static List<Integer> ids(List<ItemEntity> items) {
+        return items.stream().map(ItemEntity::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,33 @@
+-- The catalog tables as tables.sql and the migrations up to V005 leave them, with two brands, one category and
+-- five items in it. Item 5 has no brand.
+DROP ALL OBJECTS;
+
+CREATE TABLE state(id SERIAL PRIMARY KEY, uuid UUID UNIQUE NOT NULL, state_name VARCHAR(30));
+CREATE TABLE address(id SERIAL PRIMARY KEY, uuid UUID UNIQUE NOT NULL, flat_buil_number VARCHAR(255), locality VARCHAR(255),
+  city VARCHAR(30), pincode VARCHAR(30), state_id INTEGER REFERENCES state(id), deleted BOOLEAN NOT NULL DEFAULT FALSE);
+CREATE TABLE category(id SERIAL PRIMARY KEY, uuid UUID UNIQUE NOT NULL, category_name VARCHAR(255));
+CREATE TABLE item(id SERIAL PRIMARY KEY, uuid UUID UNIQUE NOT NULL, item_name VARCHAR(30) NOT NULL, price INTEGER NOT NULL);
+CREATE TABLE brands(id SERIAL PRIMARY KEY, uuid UUID UNIQUE NOT NULL, brand_name VARCHAR(50) NOT NULL, customer_rating DECIMAL NOT NULL,
+  number_of_customers_rated INTEGER NOT NULL DEFAULT 0, address_id INTEGER NOT NULL REFERENCES address(id));
+CREATE TABLE category_item(id SERIAL PRIMARY KEY, item_id INTEGER NOT NULL REFERENCES item(id), category_id INTEGER NOT NULL REFERENCES category(id),
+  item_price INTEGER);
+CREATE TABLE brands_item(id SERIAL PRIMARY KEY, item_id INTEGER NOT NULL REFERENCES item(id), brand_id INTEGER NOT NULL REFERENCES brands(id),
+  item_price INTEGER);
+CREATE TABLE brands_category(id SERIAL PRIMARY KEY, brand_id INTEGER NOT NULL REFERENCES brands(id), category_id INTEGER NOT NULL REFERENCES category(id));
+
+INSERT INTO state(id, uuid, state_name) VALUES (1, 'c860e78a-a29b-11e8-9a3a-720006ceb890', 'Karnataka');
+INSERT INTO address(id, uuid, flat_buil_number, locality, city, pincode, state_id)
+  VALUES (1, 'b3b3e4ce-a29b-11e8-9a3a-720006ceb890', '12', 'Indiranagar', 'Bangalore', '560038', 1);
+INSERT INTO brands(id, uuid, brand_name, customer_rating, number_of_customers_rated, address_id) VALUES
+  (1, '1dd86f90-a296-11e8-9a3a-720006ceb890', 'Roadster', 4.2, 120, 1),
+  (2, '2dd86f90-a296-11e8-9a3a-720006ceb890', 'Puma', 4.5, 80, 1);
+INSERT INTO category(id, uuid, category_name) VALUES (1, '7e3f2b6c-a29c-11e8-9a3a-720006ceb890', 'Shoes');
+INSERT INTO item(id, uuid, item_name, price) VALUES
+  (1, 'a1c4a1f4-a29c-11e8-9a3a-720006ceb890', 'Runner', 1500),
+  (2, 'a2c4a1f4-a29c-11e8-9a3a-720006ceb890', 'Trainer', 900),
+  (3, 'a3c4a1f4-a29c-11e8-9a3a-720006ceb890', 'Loafer', 1500),
+  (4, 'a4c4a1f4-a29c-11e8-9a3a-720006ceb890', 'Sandal', 400),
+  (5, 'a5c4a1f4-a29c-11e8-9a3a-720006ceb890', 'Slipper', 200);
+INSERT INTO category_item(item_id, category_id, item_price) VALUES (1, 1, 1500), (2, 1, 900), (3, 1, 1500), (4, 1, 400), (5, 1, 200);
+INSERT INTO brands_item(item_id, brand_id, item_price) VALUES (1, 1, 1500), (2, 1, 900), (3, 1, 1500), (4, 2, 400);
+INSERT INTO brands_category(brand_id, category_id) VALUES (1, 1), (2, 1);